@@ -0,0 +1,54 @@
+package br.com.alura.AluraFake.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara dois resultados JSON do JMH (-rf json), por exemplo de duas versões:
+ *
+ * <pre>
+ * java -cp ... br.com.alura.AluraFake.benchmark.BenchmarkResultDiff jmh-1.0.json jmh-1.1.json
+ * </pre>
+ *
+ * Para cada benchmark (com seus parâmetros) presente nos dois arquivos imprime os scores e a variação percentual.
+ * A variação é sempre "depois em relação a antes"; se o modo for vazão, positivo é melhor, nos demais, pior.
+ */
+public class BenchmarkResultDiff {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Uso: BenchmarkResultDiff <antes.json> <depois.json>");
+            System.exit(1);
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> before = index(mapper.readTree(new File(args[0])));
+        Map<String, JsonNode> after = index(mapper.readTree(new File(args[1])));
+
+        before.forEach((key, old) -> {
+            JsonNode current = after.get(key);
+            if (current == null) return;
+
+            double oldScore = old.at("/primaryMetric/score").asDouble();
+            double newScore = current.at("/primaryMetric/score").asDouble();
+            System.out.printf("%-90s %-6s %14.3f %14.3f %+8.1f%% %s%n", key, current.get("mode").asText(),
+                    oldScore, newScore, (newScore - oldScore) / oldScore * 100,
+                    current.at("/primaryMetric/scoreUnit").asText());
+        });
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText());
+            JsonNode params = result.get("params");
+            if (params != null) params.fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.CourseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validação completa de publicação (status, contadores de tipo e agregado das ordens) conforme o tamanho do curso.
+ * Cada chamada publica dentro de uma transação que sofre rollback, então o curso volta a BUILDING para a próxima.
+ * Roda no perfil "bench" (H2 em memória).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoursePublishValidationBenchmark {
+
+    @Param({"3", "100", "1000"})
+    private int tasksPerCourse;
+
+    private ConfigurableApplicationContext context;
+    private CourseService courseService;
+    private TransactionTemplate transactionTemplate;
+    private Long courseId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.NONE)
+                .run();
+        courseService = context.getBean(CourseService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CourseRepository courseRepository = context.getBean(CourseRepository.class);
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        Type[] types = Type.values();
+
+        courseId = transactionTemplate.execute(status -> {
+            User instructor = userRepository.save(new User("Instrutor", "instrutor-bench@alura.com.br", Role.INSTRUCTOR));
+            Course course = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+            List<Task> tasks = new ArrayList<>();
+            for (int order = 1; order <= tasksPerCourse; order++) {
+                tasks.add(new Task("Atividade " + order, order, types[order % types.length], course));
+            }
+            taskRepository.saveAll(tasks);
+            return course.getId();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void publishCourse() {
+        transactionTemplate.executeWithoutResult(status -> {
+            courseService.publishCourse(courseId);
+            status.setRollbackOnly();
+        });
+    }
+}
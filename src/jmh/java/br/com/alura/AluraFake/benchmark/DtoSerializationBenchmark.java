@@ -0,0 +1,61 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO;
+import br.com.alura.AluraFake.infra.dto.course.InstructorCourseDTO;
+import br.com.alura.AluraFake.infra.dto.course.InstructorCoursesReportDTO;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Serialização para JSON das respostas de listagem de cursos e do relatório do instrutor, com o ObjectMapper
+ * configurado como o do Spring Boot (datas ISO-8601, não timestamps).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoSerializationBenchmark {
+
+    @Param({"50", "200"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<CourseListItemDTO> courses;
+    private InstructorCoursesReportDTO report;
+
+    @Setup
+    public void setup() {
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        courses = IntStream.rangeClosed(1, size)
+                .mapToObj(id -> new CourseListItemDTO((long) id, "Curso " + id, "Descrição do curso " + id,
+                        id % 2 == 0 ? Status.PUBLISHED : Status.BUILDING))
+                .toList();
+        List<InstructorCourseDTO> reportCourses = IntStream.rangeClosed(1, size)
+                .mapToObj(id -> new InstructorCourseDTO((long) id, "Curso " + id,
+                        id % 2 == 0 ? Status.PUBLISHED : Status.BUILDING,
+                        id % 2 == 0 ? LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(id) : null, id % 20))
+                .toList();
+        report = new InstructorCoursesReportDTO(reportCourses, size / 2);
+    }
+
+    @Benchmark
+    public byte[] courseList() throws Exception {
+        return writer.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public byte[] instructorReport() throws Exception {
+        return writer.writeValueAsBytes(report);
+    }
+}
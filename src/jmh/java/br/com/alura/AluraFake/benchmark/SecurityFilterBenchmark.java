@@ -0,0 +1,75 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.security.PrincipalCache;
+import br.com.alura.AluraFake.security.SecurityFilter;
+import br.com.alura.AluraFake.security.TokenRevocationList;
+import br.com.alura.AluraFake.security.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão do SecurityFilter por requisição: com token (cache de tokens verificados e principal montado a partir das
+ * claims) e sem token. Não precisa de banco: no modo stateless o filtro não consulta usuários e a versão de
+ * token vem do cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SecurityFilterBenchmark {
+
+    private SecurityFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        // A versão de token fica no cache depois da primeira leitura; o repositório só responde essa leitura
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findTokenVersionById(1L)).thenReturn(Optional.of(0));
+        TokenRevocationList revocationList = new TokenRevocationList(Duration.ofHours(12));
+        ReflectionTestUtils.setField(revocationList, "userRepository", userRepository);
+
+        TokenService tokenService = new TokenService("alura", 10_000, revocationList, new SimpleMeterRegistry());
+        User user = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR, "password123");
+        ReflectionTestUtils.setField(user, "id", 1L);
+        authorization = "Bearer " + tokenService.generateToken(user);
+
+        filter = new SecurityFilter();
+        ReflectionTestUtils.setField(filter, "tokenService", tokenService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(10_000, Duration.ofMinutes(5)));
+        ReflectionTestUtils.setField(filter, "statelessAuthentication", true);
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/course/all");
+        request.addHeader("Authorization", authorization);
+        return filter(request);
+    }
+
+    @Benchmark
+    public Object anonymousRequest() throws Exception {
+        return filter(new MockHttpServletRequest("GET", "/course/all"));
+    }
+
+    private Object filter(MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo para gravar 10 mil atividades com um único saveAll. {@code batchSize=0} reproduz o comportamento com ids
+ * IDENTITY (um INSERT por ida ao banco); os demais valores usam o lote JDBC, com ou sem a reescrita de lotes do
+ * driver MySQL. Sobe a aplicação com o perfil "test", então precisa do mesmo banco usado pelos testes de integração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class TaskBulkInsertBenchmark {
+
+    private static final int TASKS = 10_000;
+
+    @Param({"0", "50"})
+    private int batchSize;
+
+    @Param({"false", "true"})
+    private boolean rewriteBatchedStatements;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private CourseRepository courseRepository;
+    private TransactionTemplate transactionTemplate;
+    private User instructor;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                // Argumentos de linha de comando têm precedência sobre application-test.properties
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--spring.datasource.url=jdbc:mysql://localhost:3306/alurafake_test?useSSL=false&serverTimezone=UTC"
+                                + "&createDatabaseIfNotExist=true&rewriteBatchedStatements=" + rewriteBatchedStatements);
+        taskRepository = context.getBean(TaskRepository.class);
+        courseRepository = context.getBean(CourseRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        cleanTasks();
+        userRepository.deleteAllInBatch();
+        instructor = userRepository.save(new User("Instrutor", "instrutor@bench.com", Role.INSTRUCTOR));
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanTasks() {
+        taskRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void saveAllTasks() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = courseRepository.save(new Course("Benchmark", "Curso do benchmark", instructor));
+            List<Task> tasks = new ArrayList<>(TASKS);
+            for (int i = 1; i <= TASKS; i++) {
+                tasks.add(new Task("Atividade " + i, i, Type.OPEN_TEXT, course));
+            }
+            taskRepository.saveAll(tasks);
+        });
+    }
+}
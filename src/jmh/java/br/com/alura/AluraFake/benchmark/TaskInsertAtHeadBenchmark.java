@@ -0,0 +1,107 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.TaskService;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de inserir uma atividade na ordem 1 conforme o tamanho do curso. Compara o deslocamento em lote do
+ * TaskService com o comportamento antigo (carregar e salvar cada atividade deslocada). Sobe a aplicação com o
+ * perfil "test", então precisa do mesmo banco usado pelos testes de integração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class TaskInsertAtHeadBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int courseSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private CourseRepository courseRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private User instructor;
+    private Long courseId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run();
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        courseRepository = context.getBean(CourseRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        userRepository.deleteAll();
+        instructor = userRepository.save(new User("Instrutor", "instrutor@bench.com", Role.INSTRUCTOR));
+    }
+
+    @Setup(Level.Iteration)
+    public void seedCourse() {
+        courseId = transactionTemplate.execute(status -> {
+            Course course = courseRepository.save(new Course("Benchmark", "Curso do benchmark", instructor));
+            List<Task> tasks = new ArrayList<>(courseSize);
+            for (int i = 1; i <= courseSize; i++) {
+                tasks.add(new Task("Atividade " + i, i, Type.OPEN_TEXT, course));
+            }
+            taskRepository.saveAll(tasks);
+            return course.getId();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public void bulkShift() {
+        taskService.createOpenTextTask(new TaskRequestDTO(courseId, "Nova atividade", 1));
+    }
+
+    @Benchmark
+    public void rowByRowShift() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course course = courseRepository.findById(courseId).orElseThrow();
+            List<Task> tasksToShift = entityManager
+                    .createQuery("SELECT t FROM Task t WHERE t.course.id = :courseId AND t.orderNumber >= 1 ORDER BY t.orderNumber", Task.class)
+                    .setParameter("courseId", courseId)
+                    .getResultList();
+            for (int i = tasksToShift.size() - 1; i >= 0; i--) {
+                Task task = tasksToShift.get(i);
+                task.setOrderNumber(task.getOrderNumber() + 1);
+                taskRepository.save(task);
+            }
+            taskRepository.save(new Task("Nova atividade", 1, Type.OPEN_TEXT, course));
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.alura.AluraFake.benchmark;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.security.TokenRevocationList;
+import br.com.alura.AluraFake.security.TokenService;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por chamada de assinar/validar tokens. Os métodos "rebuilding" reproduzem o comportamento antigo do
+ * TokenService (Algorithm e JWTVerifier recriados a cada chamada) para servir de linha de base.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "alura";
+    private static final String ISSUER = "alura-fake-api";
+
+    private TokenService cachedService;
+    private TokenService uncachedService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cachedService = new TokenService(SECRET, 10_000, new TokenRevocationList(Duration.ofHours(12)), new SimpleMeterRegistry());
+        uncachedService = new TokenService(SECRET, 0, new TokenRevocationList(Duration.ofHours(12)), new SimpleMeterRegistry());
+        user = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR, "password123");
+        token = cachedService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateRebuildingAlgorithm() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.create()
+                .withIssuer(ISSUER)
+                .withSubject(user.getEmail())
+                .withExpiresAt(Instant.now().plus(8, ChronoUnit.HOURS))
+                .sign(algorithm);
+    }
+
+    @Benchmark
+    public String generatePrebuiltAlgorithm() {
+        return cachedService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateRebuildingVerifier() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        return JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build()
+                .verify(token)
+                .getSubject();
+    }
+
+    @Benchmark
+    public String validatePrebuiltVerifier() {
+        return uncachedService.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateCachedToken() {
+        return cachedService.validateToken(token);
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.alura.AluraFake.infra.entity;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compara os dois layouts possíveis para as alternativas das atividades de escolha, em tabelas de rascunho no banco
+ * dos testes de integração (perfil "test"): empacotadas na linha da atividade (o layout de {@link TaskOption}) ou
+ * numa tabela filha, lida com JOIN. Mede a leitura do conteúdo de um curso (40 atividades, dois terços de escolha com
+ * 4 alternativas cada) e a gravação de um curso inteiro por lote JDBC. Fica no pacote da entidade para usar a mesma
+ * decodificação da aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskOptionsLayoutBenchmark {
+
+    private static final int COURSES = 500;
+    private static final int TASKS_PER_COURSE = 40;
+    private static final List<TaskOption> OPTIONS = List.of(
+            new TaskOption("Uma alternativa de tamanho comum", true),
+            new TaskOption("Outra alternativa de tamanho comum", false),
+            new TaskOption("Mais uma alternativa de tamanho comum", true),
+            new TaskOption("A última alternativa de tamanho comum", false));
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final AtomicLong nextId = new AtomicLong();
+    private final AtomicLong nextCourse = new AtomicLong(COURSES);
+
+    @Setup(Level.Trial)
+    public void createTables() {
+        context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        dropTables();
+        jdbcTemplate.execute("""
+                CREATE TABLE bench_task_packed (
+                    id BIGINT PRIMARY KEY, course_id BIGINT NOT NULL, order_number INT NOT NULL,
+                    statement VARCHAR(255) NOT NULL, type VARCHAR(20) NOT NULL,
+                    options_text VARCHAR(500) NULL, correct_options TINYINT UNSIGNED NULL,
+                    INDEX idx_bench_packed_course (course_id, order_number))""");
+        jdbcTemplate.execute("""
+                CREATE TABLE bench_task (
+                    id BIGINT PRIMARY KEY, course_id BIGINT NOT NULL, order_number INT NOT NULL,
+                    statement VARCHAR(255) NOT NULL, type VARCHAR(20) NOT NULL,
+                    INDEX idx_bench_task_course (course_id, order_number))""");
+        jdbcTemplate.execute("""
+                CREATE TABLE bench_task_option (
+                    task_id BIGINT NOT NULL, position TINYINT NOT NULL, text VARCHAR(80) NOT NULL, correct BOOLEAN NOT NULL,
+                    PRIMARY KEY (task_id, position))""");
+
+        for (long course = 0; course < COURSES; course++) {
+            insertPacked(course);
+            insertChild(course);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        dropTables();
+        context.close();
+    }
+
+    @Benchmark
+    public int readPacked() {
+        List<List<TaskOption>> tasks = jdbcTemplate.query("""
+                SELECT id, statement, type, options_text, correct_options FROM bench_task_packed
+                WHERE course_id = ? ORDER BY order_number""",
+                (rs, row) -> TaskOption.unpack(rs.getString("options_text"), rs.getObject("correct_options", Integer.class)),
+                randomCourse());
+        return tasks.size();
+    }
+
+    @Benchmark
+    public int readChildJoin() {
+        Map<Long, List<TaskOption>> tasks = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT t.id, t.statement, t.type, o.text, o.correct FROM bench_task t
+                LEFT JOIN bench_task_option o ON o.task_id = t.id
+                WHERE t.course_id = ? ORDER BY t.order_number, o.position""",
+                rs -> {
+                    List<TaskOption> options = tasks.computeIfAbsent(rs.getLong("id"), id -> new ArrayList<>(4));
+                    String text = rs.getString("text");
+                    if (text != null) options.add(new TaskOption(text, rs.getBoolean("correct")));
+                },
+                randomCourse());
+        return tasks.size();
+    }
+
+    @Benchmark
+    public void writePacked() {
+        transactionTemplate.executeWithoutResult(status -> insertPacked(nextCourse.getAndIncrement()));
+    }
+
+    @Benchmark
+    public void writeChild() {
+        transactionTemplate.executeWithoutResult(status -> insertChild(nextCourse.getAndIncrement()));
+    }
+
+    private void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS bench_task_packed, bench_task_option, bench_task");
+    }
+
+    private long randomCourse() {
+        return random.nextLong(COURSES);
+    }
+
+    private void insertPacked(long course) {
+        List<Object[]> rows = new ArrayList<>(TASKS_PER_COURSE);
+        for (int order = 1; order <= TASKS_PER_COURSE; order++) {
+            boolean choice = order % 3 != 0;
+            rows.add(new Object[]{nextId.incrementAndGet(), course, order, "Atividade " + order, choice ? "MULTIPLE_CHOICE" : "OPEN_TEXT",
+                    choice ? TaskOption.packTexts(OPTIONS) : null, choice ? TaskOption.packCorrect(OPTIONS) : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bench_task_packed VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    private void insertChild(long course) {
+        List<Object[]> tasks = new ArrayList<>(TASKS_PER_COURSE);
+        List<Object[]> options = new ArrayList<>(TASKS_PER_COURSE * OPTIONS.size());
+        for (int order = 1; order <= TASKS_PER_COURSE; order++) {
+            boolean choice = order % 3 != 0;
+            long id = nextId.incrementAndGet();
+            tasks.add(new Object[]{id, course, order, "Atividade " + order, choice ? "MULTIPLE_CHOICE" : "OPEN_TEXT"});
+            if (!choice) continue;
+            for (int position = 0; position < OPTIONS.size(); position++) {
+                options.add(new Object[]{id, position, OPTIONS.get(position).text(), OPTIONS.get(position).correct()});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bench_task VALUES (?, ?, ?, ?, ?)", tasks);
+        jdbcTemplate.batchUpdate("INSERT INTO bench_task_option VALUES (?, ?, ?, ?)", options);
+    }
+}
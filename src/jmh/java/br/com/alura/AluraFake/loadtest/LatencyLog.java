@@ -0,0 +1,37 @@
+package br.com.alura.AluraFake.loadtest;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Latências de uma operação, sem sincronização: cada cliente tem o seu e eles só são juntados no fim.
+ */
+class LatencyLog {
+
+    private long[] nanos = new long[1024];
+    private int count;
+    private long errors;
+
+    void record(long elapsedNanos, boolean success) {
+        if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+        nanos[count++] = elapsedNanos;
+        if (!success) errors++;
+    }
+
+    static PerfReport.EndpointResult summarize(String name, Collection<LatencyLog> logs, double seconds) {
+        long[] all = logs.stream()
+                .flatMapToLong(log -> Arrays.stream(log.nanos, 0, log.count))
+                .sorted()
+                .toArray();
+        long errors = logs.stream().mapToLong(log -> log.errors).sum();
+
+        return new PerfReport.EndpointResult(name, all.length, errors, all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.95), percentile(all, 0.99),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) return 0;
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+    }
+}
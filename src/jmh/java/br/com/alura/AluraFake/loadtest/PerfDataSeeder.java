@@ -0,0 +1,105 @@
+package br.com.alura.AluraFake.loadtest;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Gera a massa sintética pelos repositórios da aplicação, um instrutor por transação. Todos os cursos gerados têm
+ * atividades dos três tipos em ordem contínua, então são publicáveis.
+ */
+class PerfDataSeeder {
+
+    static final String PASSWORD = "perf-password";
+
+    private static final Logger log = LoggerFactory.getLogger(PerfDataSeeder.class);
+    private static final Type[] TYPES = Type.values();
+    private static final Map<Type, List<TaskOption>> OPTIONS = Map.of(
+            Type.SINGLE_CHOICE, List.of(new TaskOption("Alternativa A", true), new TaskOption("Alternativa B", false),
+                    new TaskOption("Alternativa C", false)),
+            Type.MULTIPLE_CHOICE, List.of(new TaskOption("Alternativa A", true), new TaskOption("Alternativa B", true),
+                    new TaskOption("Alternativa C", false)));
+
+    private final UserRepository userRepository;
+    private final CourseRepository courseRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String encodedPassword;
+
+    PerfDataSeeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.courseRepository = context.getBean(CourseRepository.class);
+        this.taskRepository = context.getBean(TaskRepository.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        // Um único hash BCrypt para todos: o custo de gerar milhares deles não é o que se quer medir
+        this.encodedPassword = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+    }
+
+    SeededData seed(int instructors, int coursesPerInstructor, int tasksPerCourse, int students, int scratchCourses) {
+        long start = System.nanoTime();
+        List<String> emails = new ArrayList<>();
+        List<Long> instructorIds = new ArrayList<>();
+        ConcurrentLinkedQueue<Long> publishable = new ConcurrentLinkedQueue<>();
+
+        for (int i = 0; i < instructors; i++) {
+            String email = "instrutor" + i + "@perf.alura.com.br";
+            List<Long> courseIds = transactionTemplate.execute(status -> {
+                User instructor = userRepository.save(new User("Instrutor " + email, email, Role.INSTRUCTOR, encodedPassword));
+                instructorIds.add(instructor.getId());
+                return saveCourses(instructor, coursesPerInstructor, tasksPerCourse);
+            });
+            emails.add(email);
+            publishable.addAll(courseIds);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> batch = new ArrayList<>();
+            for (int i = 0; i < students; i++) {
+                String email = "estudante" + i + "@perf.alura.com.br";
+                batch.add(new User("Estudante " + i, email, Role.STUDENT, encodedPassword));
+            }
+            userRepository.saveAll(batch);
+        });
+
+        List<Long> scratch = transactionTemplate.execute(status -> {
+            User owner = userRepository.findById(instructorIds.get(0)).orElseThrow();
+            return saveCourses(owner, scratchCourses, 0);
+        });
+
+        log.info("Massa gerada em {} ms: {} instrutores, {} cursos publicáveis, {} estudantes, {} cursos de rascunho",
+                (System.nanoTime() - start) / 1_000_000, instructors, publishable.size(), students, scratch.size());
+        return new SeededData(emails, PASSWORD, instructorIds, publishable, scratch);
+    }
+
+    private List<Long> saveCourses(User instructor, int amount, int tasksPerCourse) {
+        List<Course> courses = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int c = 0; c < amount; c++) {
+            Course course = new Course("Curso " + c + " de " + instructor.getName(), "Curso gerado para teste de carga", instructor);
+            courses.add(course);
+            for (int order = 1; order <= tasksPerCourse; order++) {
+                Type type = TYPES[order % TYPES.length];
+                tasks.add(new Task("Atividade " + order, order, type, course, OPTIONS.get(type)));
+            }
+        }
+        courseRepository.saveAll(courses);
+        taskRepository.saveAll(tasks);
+        return courses.stream().map(Course::getId).toList();
+    }
+}
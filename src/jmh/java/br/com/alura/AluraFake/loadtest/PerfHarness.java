@@ -0,0 +1,99 @@
+package br.com.alura.AluraFake.loadtest;
+
+import br.com.alura.AluraFake.AluraFakeApplication;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Teste de carga ponta a ponta sem dependências externas: sobe um MariaDB embarcado, inicia a aplicação no perfil
+ * "perf" (migrations do Flyway aplicadas normalmente), gera a massa sintética, executa a mistura de operações de
+ * {@code api.perf.mix} e grava o relatório por endpoint em {@code api.perf.report}.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@perf -Dperf.args="--api.perf.clients=500 --api.perf.duration=2m"
+ * </pre>
+ *
+ * Qualquer propriedade do perfil "perf" pode ser sobrescrita pelos argumentos. A carga é gerada na mesma JVM da
+ * aplicação, então os números servem para comparar versões na mesma máquina, não como capacidade absoluta.
+ * <p>
+ * Uma operação por vez mede um endpoint isolado, ex.: só a listagem ou só a inserção de atividades (cada cliente
+ * acrescenta no fim do próprio curso, sem disputar o lock de curso com os demais):
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec@perf -Dperf.args="--api.perf.clients=2000 --api.perf.duration=30s --api.perf.mix=list-courses:1"
+ * mvn -Pjmh test-compile exec:exec@perf -Dperf.args="--api.perf.clients=2000 --api.perf.duration=30s --api.perf.mix=create-task:1"
+ * </pre>
+ */
+public class PerfHarness {
+
+    private static final Logger log = LoggerFactory.getLogger(PerfHarness.class);
+    private static final String DATABASE = "alurafake_perf";
+
+    public static void main(String[] args) throws Exception {
+        DB database = startDatabase();
+        ConfigurableApplicationContext context = null;
+        try {
+            context = new SpringApplicationBuilder(AluraFakeApplication.class)
+                    .profiles("perf")
+                    .run(withDatasource(args, database.getConfiguration().getPort()));
+            Environment environment = context.getEnvironment();
+
+            SeededData data = new PerfDataSeeder(context).seed(
+                    environment.getRequiredProperty("api.perf.seed.instructors", Integer.class),
+                    environment.getRequiredProperty("api.perf.seed.courses-per-instructor", Integer.class),
+                    environment.getRequiredProperty("api.perf.seed.tasks-per-course", Integer.class),
+                    environment.getRequiredProperty("api.perf.seed.students", Integer.class),
+                    environment.getRequiredProperty("api.perf.clients", Integer.class));
+
+            Workload workload = new Workload(
+                    "http://localhost:" + environment.getRequiredProperty("local.server.port"),
+                    data,
+                    WorkloadMix.parse(environment.getRequiredProperty("api.perf.mix")));
+            PerfReport report = workload.run(
+                    environment.getRequiredProperty("api.perf.clients", Integer.class),
+                    environment.getRequiredProperty("api.perf.warmup", Duration.class),
+                    environment.getRequiredProperty("api.perf.duration", Duration.class));
+
+            System.out.println(report);
+            File output = new File(environment.getRequiredProperty("api.perf.report"));
+            report.writeTo(output);
+            log.info("Relatório gravado em {}", output.getAbsolutePath());
+        } finally {
+            if (context != null) context.close();
+            database.stop();
+        }
+    }
+
+    private static DB startDatabase() throws Exception {
+        DBConfigurationBuilder configuration = DBConfigurationBuilder.newBuilder()
+                .setDatabaseVersion("mariadb-11.4.5")
+                .setPort(0)
+                // As migrations criam "task" e o Hibernate consulta "Task": no Linux o MariaDB diferencia maiúsculas
+                .addArg("--lower_case_table_names=1")
+                .addArg("--user=root");
+        DB database = DB.newEmbeddedDB(configuration.build());
+        database.start();
+        database.createDB(DATABASE);
+        return database;
+    }
+
+    private static String[] withDatasource(String[] args, int port) {
+        List<String> all = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:mysql://localhost:" + port + "/" + DATABASE
+                        + "?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true",
+                "--spring.datasource.username=root",
+                "--spring.datasource.password="));
+        all.addAll(List.of(args));
+        return all.toArray(String[]::new);
+    }
+}
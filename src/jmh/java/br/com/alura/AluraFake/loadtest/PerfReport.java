@@ -0,0 +1,37 @@
+package br.com.alura.AluraFake.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Resultado de uma execução do PerfHarness: vazão e percentis de latência (ms) por operação.
+ */
+record PerfReport(int clients, long durationSeconds, List<EndpointResult> endpoints) {
+
+    record EndpointResult(String operation, long requests, long errors, double throughput,
+                          double p50, double p95, double p99, double max) {
+    }
+
+    void writeTo(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, this);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder(String.format("%d clientes, %ds medidos%n", clients, durationSeconds));
+        table.append(String.format("%-20s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "req", "erros", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (EndpointResult endpoint : endpoints) {
+            table.append(String.format("%-20s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    endpoint.operation(), endpoint.requests(), endpoint.errors(), endpoint.throughput(),
+                    endpoint.p50(), endpoint.p95(), endpoint.p99(), endpoint.max()));
+        }
+        return table.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.alura.AluraFake.loadtest;
+
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * O que o workload precisa saber da massa gerada: credenciais dos instrutores, cursos prontos para publicar (cada um
+ * só pode ser publicado uma vez, por isso uma fila) e um curso vazio por cliente para criação de atividades.
+ */
+record SeededData(List<String> instructorEmails,
+                  String password,
+                  List<Long> instructorIds,
+                  Queue<Long> publishableCourseIds,
+                  List<Long> scratchCourseIds) {
+}
@@ -0,0 +1,162 @@
+package br.com.alura.AluraFake.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Clientes em threads virtuais, cada um autenticado como um instrutor da massa, sorteando a próxima operação pela
+ * mistura configurada e repetindo sem pausa até o fim da execução. O aquecimento não entra nas medições.
+ */
+class Workload {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String baseUrl;
+    private final SeededData data;
+    private final WorkloadMix mix;
+    private final HttpClient http;
+
+    Workload(String baseUrl, SeededData data, WorkloadMix mix) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.mix = mix;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+    }
+
+    PerfReport run(int clients, Duration warmup, Duration duration) {
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        List<Client> all = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(i);
+                all.add(client);
+                executor.execute(() -> client.loop(warmupEnd, end));
+            }
+        }
+
+        List<PerfReport.EndpointResult> endpoints = mix.operations().stream()
+                .map(operation -> LatencyLog.summarize(operation,
+                        all.stream().map(client -> client.logFor(operation)).toList(),
+                        duration.toMillis() / 1000.0))
+                .toList();
+        return new PerfReport(clients, duration.toSeconds(), endpoints);
+    }
+
+    private class Client {
+
+        private final int index;
+        private final Map<String, LatencyLog> logs = new HashMap<>();
+        private final Long scratchCourseId;
+        private int nextOrder = 1;
+        private String token;
+
+        Client(int index) {
+            this.index = index;
+            this.scratchCourseId = data.scratchCourseIds().get(index % data.scratchCourseIds().size());
+        }
+
+        LatencyLog logFor(String operation) {
+            return logs.computeIfAbsent(operation, key -> new LatencyLog());
+        }
+
+        void loop(long warmupEnd, long end) {
+            try {
+                token = login();
+            } catch (Exception e) {
+                return;
+            }
+
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                String operation = mix.next();
+                boolean success;
+                try {
+                    success = execute(operation);
+                } catch (Exception e) {
+                    success = false;
+                }
+                if (now >= warmupEnd) logFor(operation).record(System.nanoTime() - now, success);
+            }
+        }
+
+        private boolean execute(String operation) throws Exception {
+            return switch (operation) {
+                case "login" -> login() != null;
+                case "list-courses" -> isSuccess(send(authorized("/course/all?size=50").GET().build()));
+                case "instructor-report" -> isSuccess(send(authorized("/instructor/" + randomInstructorId() + "/courses").GET().build()));
+                case "create-task" -> createTask();
+                case "publish" -> publish();
+                default -> throw new IllegalArgumentException("Operação desconhecida: " + operation);
+            };
+        }
+
+        private String login() throws Exception {
+            String email = data.instructorEmails().get(index % data.instructorEmails().size());
+            String body = MAPPER.writeValueAsString(Map.of("email", email, "password", data.password()));
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+            if (!isSuccess(response)) return null;
+            return MAPPER.readTree(response.body()).get("token").asText();
+        }
+
+        private boolean createTask() throws Exception {
+            String body = MAPPER.writeValueAsString(Map.of(
+                    "courseId", scratchCourseId,
+                    "statement", "Atividade de carga " + index + "-" + nextOrder,
+                    "order", nextOrder));
+            boolean success = isSuccess(send(authorized("/task/new/opentext")
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build()));
+            if (success) nextOrder++;
+            return success;
+        }
+
+        private boolean publish() throws Exception {
+            Long courseId = data.publishableCourseIds().poll();
+            // Sem cursos publicáveis restantes a operação vira uma listagem, para não distorcer a vazão
+            if (courseId == null) return isSuccess(send(authorized("/course/all?size=50").GET().build()));
+            return isSuccess(send(authorized("/course/" + courseId + "/publish")
+                    .POST(HttpRequest.BodyPublishers.noBody())
+                    .build()));
+        }
+
+        private Long randomInstructorId() {
+            return data.instructorIds().get(ThreadLocalRandom.current().nextInt(data.instructorIds().size()));
+        }
+
+        private HttpRequest.Builder authorized(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Authorization", "Bearer " + token);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() >= 200 && response.statusCode() < 300;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.alura.AluraFake.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mistura de operações com pesos, no formato {@code nome:peso,nome:peso}. Operações: login, list-courses,
+ * instructor-report, create-task e publish.
+ */
+record WorkloadMix(List<String> operations, int[] cumulativeWeights) {
+
+    static WorkloadMix parse(String mix) {
+        List<String> operations = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            operations.add(parts[0].trim());
+            weights.add(Integer.parseInt(parts[1].trim()));
+        }
+
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (int i = 0; i < weights.size(); i++) {
+            total += weights.get(i);
+            cumulative[i] = total;
+        }
+        return new WorkloadMix(List.copyOf(operations), cumulative);
+    }
+
+    String next() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (draw < cumulativeWeights[i]) return operations.get(i);
+        }
+        return operations.get(operations.size() - 1);
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.alura.AluraFake.service;
+
+import br.com.alura.AluraFake.infra.dto.task.OptionDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das regras de alternativas do TaskService (tamanho, duplicidade, igualdade com o enunciado). Fica no pacote
+ * do serviço porque os métodos de validação têm visibilidade de pacote; não precisa de banco nem de contexto Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TaskOptionsValidationBenchmark {
+
+    private static final String STATEMENT = "Quais destas linguagens rodam na JVM?";
+
+    private TaskService taskService;
+    private List<OptionDTO> singleChoice;
+    private List<OptionDTO> multipleChoice;
+
+    @Setup
+    public void setup() {
+        taskService = new TaskService();
+        singleChoice = List.of(
+                new OptionDTO("Java", true),
+                new OptionDTO("Python", false),
+                new OptionDTO("Ruby", false));
+        multipleChoice = List.of(
+                new OptionDTO("Java", true),
+                new OptionDTO("Kotlin", true),
+                new OptionDTO("Scala", true),
+                new OptionDTO("Python", false),
+                new OptionDTO("Ruby", false));
+    }
+
+    @Benchmark
+    public int commonRules() {
+        return taskService.validateCommonOptionsRules(multipleChoice, STATEMENT, 2, 5);
+    }
+
+    @Benchmark
+    public void singleChoice() {
+        taskService.validateSingleChoiceOptions(singleChoice, STATEMENT);
+    }
+
+    @Benchmark
+    public void multipleChoice() {
+        taskService.validateMultipleChoiceOptions(multipleChoice, STATEMENT);
+    }
+}
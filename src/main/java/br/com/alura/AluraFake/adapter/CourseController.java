@@ -1,20 +1,33 @@
 package br.com.alura.AluraFake.adapter;
 
+import br.com.alura.AluraFake.infra.dto.course.BatchPublishRequestDTO;
 import br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO;
+import br.com.alura.AluraFake.infra.dto.course.CoursePublishJobDTO;
 import br.com.alura.AluraFake.infra.dto.course.NewCourseDTO;
 import br.com.alura.AluraFake.infra.entity.Course;
 import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Status;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.CourseContentService;
 import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.service.ExportService;
+import br.com.alura.AluraFake.service.publish.CoursePublishJobService;
+import br.com.alura.AluraFake.util.ContentVersions;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.*;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.*;
 
 @RestController
@@ -26,6 +39,19 @@ public class CourseController {
     private UserRepository userRepository;
     @Autowired
     private CourseService courseService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private CoursePublishJobService coursePublishJobService;
+    @Autowired
+    private CourseContentService courseContentService;
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Value("${api.course.list.default-page-size:50}")
+    private int defaultPageSize;
+    @Value("${api.course.list.max-page-size:200}")
+    private int maxPageSize;
 
     @Transactional
     @PostMapping("/course/new")
@@ -43,15 +69,75 @@ public class CourseController {
         Course course = new Course(newCourse.getTitle(), newCourse.getDescription(), possibleAuthor.get());
 
         courseRepository.save(course);
+        contentVersions.courseChanged(possibleAuthor.get().getId());
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping("/course/all")
-    public ResponseEntity<List<CourseListItemDTO>> createCourse() {
-        List<CourseListItemDTO> courses = courseRepository.findAll().stream()
-                .map(CourseListItemDTO::new)
-                .toList();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<CourseListItemDTO>> listCourses(@RequestParam(value = "after", defaultValue = "0") Long after,
+                                                               @RequestParam(value = "size", required = false) Integer size,
+                                                               @RequestParam(value = "status", required = false) Status status,
+                                                               @RequestParam(value = "instructorId", required = false) Long instructorId,
+                                                               WebRequest request) {
+        // Versão inalterada: 304 antes da consulta; o ETag também vai no cabeçalho da resposta completa
+        if (request.checkNotModified(contentVersions.coursesEtag())) return null;
+
+        int pageSize = resolvePageSize(size);
+        List<CourseListItemDTO> courses = courseRepository.findPageAfter(after, status, instructorId, Limit.of(pageSize));
+
+        // Página cheia: o cursor da próxima é o último id devolvido (paginação por keyset, sem OFFSET)
+        if (courses.size() == pageSize) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", courses.get(courses.size() - 1).getId())
+                    .toUriString();
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                    .body(courses);
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(courses);
+    }
+
+    @GetMapping(value = "/course/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllCourses(WebRequest request) {
+        exportService.applyRequestTimeout(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::writeCourses);
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null) return Math.min(defaultPageSize, maxPageSize);
+        return Math.min(Math.max(requested, 1), maxPageSize);
+    }
+
+    @PostMapping("/course/publish/batch")
+    public ResponseEntity<CoursePublishJobDTO> publishCoursesInBatch(@Valid @RequestBody BatchPublishRequestDTO data) {
+        CoursePublishJobDTO job = coursePublishJobService.submit(data);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.jobId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
+    }
+
+    @GetMapping("/course/publish/batch/{jobId}")
+    public ResponseEntity<CoursePublishJobDTO> publishJobStatus(@PathVariable("jobId") String jobId) {
+        return ResponseEntity.ok(coursePublishJobService.findJob(jobId));
+    }
+
+    // Bytes gravados na publicação, escritos como estão; o Spring responde 304 quando o If-None-Match bate com o ETag
+    @GetMapping("/course/{id}/content")
+    public ResponseEntity<byte[]> courseContent(@PathVariable("id") Long id) {
+        CourseContentService.Snapshot snapshot = courseContentService.findSnapshot(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                // Sem isso o Spring Security manda no-store e o cliente não guarda a resposta para revalidar
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(snapshot.body());
     }
 
     @PostMapping("/course/{id}/publish")
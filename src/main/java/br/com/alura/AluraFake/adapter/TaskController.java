@@ -1,5 +1,6 @@
 package br.com.alura.AluraFake.adapter;
 
+import br.com.alura.AluraFake.infra.dto.task.BatchTaskRequestDTO;
 import br.com.alura.AluraFake.infra.dto.task.SingleChoiceTaskRequestDTO;
 import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
 import br.com.alura.AluraFake.service.TaskService;
@@ -33,4 +34,11 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    @PostMapping("/course/{id}/tasks/batch")
+    public ResponseEntity<Void> newTasksInBatch(@PathVariable("id") Long courseId,
+                                                @RequestBody @Valid BatchTaskRequestDTO data) {
+        taskService.createTasksInBatch(courseId, data);
+        return ResponseEntity.status(HttpStatus.CREATED).build();
+    }
+
 }
\ No newline at end of file
@@ -3,15 +3,19 @@ package br.com.alura.AluraFake.adapter;
 import br.com.alura.AluraFake.infra.dto.user.NewUserDTO;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.service.ExportService;
 import br.com.alura.AluraFake.infra.dto.course.InstructorCoursesReportDTO;
 import br.com.alura.AluraFake.infra.dto.user.UserListItemDTO;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -22,6 +26,10 @@ public class UserController {
     private UserRepository userRepository;
     @Autowired
     private CourseService courseService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ContentVersions contentVersions;
 
     @Transactional
     @PostMapping("/user/new")
@@ -32,18 +40,35 @@ public class UserController {
         }
         User user = newUser.toModel();
         userRepository.save(user);
+        contentVersions.usersChanged();
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
     @GetMapping("/user/all")
-    public List<UserListItemDTO> listAllUsers() {
-        return userRepository.findAll().stream().map(UserListItemDTO::new).toList();
+    public ResponseEntity<List<UserListItemDTO>> listAllUsers(WebRequest request) {
+        if (request.checkNotModified(contentVersions.usersEtag())) return null;
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(userRepository.findAll().stream().map(UserListItemDTO::new).toList());
+    }
+
+    @GetMapping(value = "/user/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAllUsers(WebRequest request) {
+        exportService.applyRequestTimeout(request);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(exportService::writeUsers);
     }
 
     @GetMapping("/instructor/{id}/courses")
-    public ResponseEntity<InstructorCoursesReportDTO> getInstructorCourses(@PathVariable("id") Long id) {
+    public ResponseEntity<InstructorCoursesReportDTO> getInstructorCourses(@PathVariable("id") Long id, WebRequest request) {
+        if (request.checkNotModified(contentVersions.instructorEtag(id))) return null;
+
         InstructorCoursesReportDTO report = courseService.generateInstructorReport(id);
-        return ResponseEntity.ok(report);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(report);
     }
 
 }
@@ -4,6 +4,7 @@ import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.enumerated.Role;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
@@ -17,6 +18,8 @@ public class DataSeeder implements CommandLineRunner {
 
     @Value("${spring.profiles.active:}")
     private String activeProfile;
+    @Value("${api.seed.synthetic.enabled:false}")
+    private boolean syntheticEnabled;
 
     @Autowired
     private UserRepository userRepository;
@@ -24,6 +27,10 @@ public class DataSeeder implements CommandLineRunner {
     private CourseRepository courseRepository;
     @Autowired
     private PasswordEncoder passwordEncoder;
+    @Autowired
+    private SyntheticDataSeeder syntheticDataSeeder;
+    @Autowired
+    private ContentVersions contentVersions;
 
     @Override
     public void run(String... args) {
@@ -37,6 +44,10 @@ public class DataSeeder implements CommandLineRunner {
             User caio = new User("Caio", "caio@alura.com.br", Role.STUDENT, encodedPassword);
             User paulo = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR, encodedPassword);
             userRepository.saveAll(Arrays.asList(caio, paulo));
+            contentVersions.usersChanged();
         }
+
+        // Massa em volume de produção para testes de desempenho, ligada só quando pedida
+        if (syntheticEnabled) syntheticDataSeeder.seed();
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package br.com.alura.AluraFake.config;
+
+import br.com.alura.AluraFake.infra.entity.PooledTableIdGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * O pool da aplicação, montado de {@code spring.datasource} como o Spring Boot faria, e um pool pequeno e separado
+ * usado só pelo gerador de ids ({@link PooledTableIdGenerator}) para reservar blocos nas tabelas {@code *_seq}.
+ * Vindo do pool da aplicação, bastaria o pool inteiro estar com transações esperando o gerador de ids para ninguém
+ * avançar até o connection-timeout. Os dois são beans para o Spring Boot fechar e medir ambos, mas quem injeta um
+ * DataSource recebe o da aplicação ({@code @Primary}); o de ids só é entregue ao Hibernate.
+ */
+@Configuration
+public class DataSourceConfiguration {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public HikariDataSource idGeneratorPool(DataSourceProperties properties,
+                                            @Value("${api.datasource.id-generator-pool-size:2}") int poolSize) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("HikariPool-ids");
+        pool.setMaximumPoolSize(poolSize);
+        pool.setMinimumIdle(0);
+        return pool;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer idGeneratorDataSourceCustomizer(@Qualifier("idGeneratorPool") HikariDataSource idGeneratorPool) {
+        return properties -> properties.put(PooledTableIdGenerator.DATA_SOURCE, idGeneratorPool);
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.alura.AluraFake.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Habilita o {@code @Observed} nos serviços, que gera o timer {@code api.service} e o span de cada método. As demais
+ * métricas vêm da auto-configuração do actuator: requisições HTTP ({@code http.server.requests}), métodos de
+ * repositório ({@code spring.data.repository.invocations}) e os pools do Hikari ({@code hikaricp.connections.*}).
+ * Tudo exposto em /actuator/prometheus na porta de gerenciamento.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry registry) {
+        return new ObservedAspect(registry);
+    }
+}
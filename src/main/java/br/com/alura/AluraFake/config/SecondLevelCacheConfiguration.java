@@ -0,0 +1,68 @@
+package br.com.alura.AluraFake.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre o Caffeine) para os dados de referência lidos em quase toda
+ * requisição: usuários ({@code user}, inclusive o instrutor de cada curso) e o resultado de
+ * {@code UserRepository.findByEmail}.
+ * As regiões são criadas aqui, com tamanho e TTL de {@code api.cache.*}; uma região que não esteja nesta lista faz
+ * o Hibernate falhar na inicialização ({@code missing_cache_strategy=fail}) em vez de criar um cache sem limite.
+ * <p>
+ * O cache é local a cada instância: as entidades usam READ_WRITE, então as escritas feitas por esta instância
+ * atualizam o cache no commit, mas as de outra instância só aparecem depois do TTL. Acertos e faltas por região
+ * ficam em {@code hibernate.second.level.cache.requests} e {@code hibernate.cache.query.requests}.
+ * <p>
+ * Course fica de fora: as escritas o leem com {@code findByIdForUpdate} (PESSIMISTIC_WRITE), que sempre vai ao banco,
+ * e os {@code findById} restantes são a falta do snapshot de {@code CourseContentService}, que já tem cache próprio, e
+ * a releitura do curso após o deslocamento em lote da ordenação densa, que precisa do estado do banco e não de uma
+ * cópia que outra instância pode ter deixado velha.
+ */
+@Configuration
+public class SecondLevelCacheConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(@Value("${api.cache.user.maximum-size:100000}") long userSize,
+                                                @Value("${api.cache.user.ttl:10m}") Duration userTtl,
+                                                @Value("${api.cache.query.maximum-size:100000}") long querySize,
+                                                @Value("${api.cache.query.ttl:10m}") Duration queryTtl) {
+        // Um gerenciador por contexto: o provider devolve o mesmo para a mesma URI e os contextos de teste coexistem
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("alurafake-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache("user", region(userSize, userTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(querySize, queryTtl));
+        // Os timestamps de atualização das tabelas não podem ser descartados antes das consultas que dependem deles
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, region(-1, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Sem cópia por serialização a cada leitura: o Hibernate já guarda o estado desmontado, não a entidade
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maximumSize >= 0) configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (ttl != null) configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,281 @@
+package br.com.alura.AluraFake.config;
+
+import br.com.alura.AluraFake.infra.entity.TaskOption;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Massa sintética em volume de produção (milhões de usuários, dezenas de milhões de atividades) para testes de
+ * desempenho. Escreve direto por lotes JDBC, sem passar pelo Hibernate: com {@code rewriteBatchedStatements=true}
+ * cada lote vira um único INSERT de várias linhas. O trabalho é dividido em unidades independentes executadas em
+ * paralelo, cada uma com a própria conexão e o próprio gerador aleatório, então a mesma semente gera a mesma massa.
+ * <p>
+ * Os ids são reservados nas tabelas {@code *_seq} antes da escrita, então o gerador do Hibernate continua depois
+ * deles sem colisão, e os contadores de atividades do curso já são gravados com os valores finais.
+ */
+@Component
+public class SyntheticDataSeeder {
+
+    static final String INSTRUCTOR_EMAIL = "instrutor%d@seed.alura.com.br";
+    static final String STUDENT_EMAIL = "estudante%d@seed.alura.com.br";
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataSeeder.class);
+    private static final Type[] REQUIRED_TYPES = {Type.OPEN_TEXT, Type.SINGLE_CHOICE, Type.MULTIPLE_CHOICE};
+    // Margem do bloco do gerador "pooled" (allocationSize = 50) ao devolver a sequência ao Hibernate
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final String INSERT_USER =
+            "INSERT INTO User (id, createdAt, name, email, role, password, tokenVersion) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_COURSE =
+            "INSERT INTO Course (id, createdAt, title, description, instructor_id, status, publishedAt, "
+                    + "openTextTaskCount, singleChoiceTaskCount, multipleChoiceTaskCount, maxTaskOrder) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TASK =
+            "INSERT INTO Task (id, created_at, statement, order_number, type, course_id, options_text, correct_options) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    // Mesmo formato empacotado de TaskOption: textos separados e bitmask das corretas (a primeira, ou as duas primeiras)
+    private static final String OPTIONS_TEXT = String.join(String.valueOf(TaskOption.SEPARATOR),
+            "Alternativa A", "Alternativa B", "Alternativa C", "Alternativa D");
+    private static final Map<Type, Integer> CORRECT_OPTIONS = Map.of(Type.SINGLE_CHOICE, 0b0001, Type.MULTIPLE_CHOICE, 0b0011);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Value("${api.seed.synthetic.instructors:1000}")
+    private int instructors;
+    @Value("${api.seed.synthetic.courses-per-instructor:100}")
+    private int coursesPerInstructor;
+    @Value("${api.seed.synthetic.tasks-per-course-min:5}")
+    private int minTasksPerCourse;
+    @Value("${api.seed.synthetic.tasks-per-course-max:40}")
+    private int maxTasksPerCourse;
+    @Value("${api.seed.synthetic.type-mix:OPEN_TEXT:40,SINGLE_CHOICE:30,MULTIPLE_CHOICE:30}")
+    private String typeMix;
+    @Value("${api.seed.synthetic.published-ratio:0.3}")
+    private double publishedRatio;
+    @Value("${api.seed.synthetic.students:1000000}")
+    private int students;
+    @Value("${api.seed.synthetic.password:password123}")
+    private String password;
+    @Value("${api.seed.synthetic.parallelism:4}")
+    private int parallelism;
+    @Value("${api.seed.synthetic.batch-size:1000}")
+    private int batchSize;
+    @Value("${api.seed.synthetic.instructors-per-unit:10}")
+    private int instructorsPerUnit;
+    @Value("${api.seed.synthetic.random-seed:42}")
+    private long randomSeed;
+
+    public void seed() {
+        if (userRepository.existsByEmail(INSTRUCTOR_EMAIL.formatted(0))) {
+            log.info("Massa sintética já existe, nada a gerar");
+            return;
+        }
+        if (minTasksPerCourse < 0 || maxTasksPerCourse < minTasksPerCourse) {
+            throw new IllegalStateException("Faixa de atividades por curso inválida: " + minTasksPerCourse + "-" + maxTasksPerCourse);
+        }
+
+        long start = System.nanoTime();
+        // Um único hash BCrypt para todos os usuários: milhões de hashes levariam horas
+        String encodedPassword = passwordEncoder.encode(password);
+        TypeMix mix = TypeMix.parse(typeMix);
+        Totals totals = new Totals();
+
+        List<Runnable> units = new ArrayList<>();
+        for (int first = 0; first < instructors; first += instructorsPerUnit) {
+            int from = first, to = Math.min(instructors, first + instructorsPerUnit);
+            units.add(() -> seedInstructors(from, to, encodedPassword, mix, totals));
+        }
+        for (int first = 0; first < students; first += batchSize) {
+            int from = first, to = Math.min(students, first + batchSize);
+            units.add(() -> seedStudents(from, to, encodedPassword, totals));
+        }
+        runInParallel(units);
+        // As escritas JDBC não passam pelo Hibernate nem pelos serviços: nada do que está no cache de segundo nível
+        // pode sobreviver a elas, e nenhum ETag das listagens pode continuar valendo
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        contentVersions.allChanged();
+
+        log.info("Massa sintética gerada em {} s: {} usuários, {} cursos, {} atividades",
+                (System.nanoTime() - start) / 1_000_000_000, totals.users, totals.courses, totals.tasks);
+    }
+
+    private void runInParallel(List<Runnable> units) {
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            List<Future<?>> futures = units.stream().<Future<?>>map(executor::submit).toList();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao gerar a massa sintética", e);
+        }
+    }
+
+    private void seedInstructors(int from, int to, String encodedPassword, TypeMix mix, Totals totals) {
+        SplittableRandom random = new SplittableRandom(randomSeed + from);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int courseCount = (to - from) * coursesPerInstructor;
+
+        // Sorteia o formato de cada curso antes de escrever, para reservar de uma vez os ids de atividades
+        int[] taskCounts = new int[courseCount];
+        boolean[] published = new boolean[courseCount];
+        long taskCount = 0;
+        for (int c = 0; c < courseCount; c++) {
+            published[c] = random.nextDouble() < publishedRatio;
+            int min = published[c] ? Math.max(minTasksPerCourse, REQUIRED_TYPES.length) : minTasksPerCourse;
+            taskCounts[c] = min >= maxTasksPerCourse ? min : random.nextInt(min, maxTasksPerCourse + 1);
+            taskCount += taskCounts[c];
+        }
+
+        long firstUserId = reserveIds("user_seq", to - from);
+        long firstCourseId = reserveIds("course_seq", courseCount);
+        long nextTaskId = reserveIds("task_seq", taskCount);
+
+        List<Object[]> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            users.add(new Object[]{firstUserId + i - from, now, "Instrutor " + i, INSTRUCTOR_EMAIL.formatted(i),
+                    Role.INSTRUCTOR.name(), encodedPassword});
+        }
+        insert(INSERT_USER, users);
+
+        List<Object[]> courses = new ArrayList<>(Math.min(courseCount, batchSize));
+        List<Object[]> tasks = new ArrayList<>(batchSize);
+        for (int c = 0; c < courseCount; c++) {
+            long courseId = firstCourseId + c;
+            long instructorId = firstUserId + c / coursesPerInstructor;
+            Map<Type, Integer> countsByType = new EnumMap<>(Type.class);
+            for (int order = 1; order <= taskCounts[c]; order++) {
+                // Curso publicado precisa ter ao menos uma atividade de cada tipo
+                Type type = published[c] && order <= REQUIRED_TYPES.length ? REQUIRED_TYPES[order - 1] : mix.next(random);
+                countsByType.merge(type, 1, Integer::sum);
+                Integer correct = CORRECT_OPTIONS.get(type);
+                tasks.add(new Object[]{nextTaskId++, now, "Atividade " + order, order, type.name(), courseId,
+                        correct == null ? null : OPTIONS_TEXT, correct});
+            }
+            courses.add(new Object[]{courseId, now, "Curso " + c + " do instrutor " + (from + c / coursesPerInstructor),
+                    "Curso gerado para teste de desempenho", instructorId,
+                    published[c] ? Status.PUBLISHED.name() : Status.BUILDING.name(), published[c] ? now : null,
+                    countsByType.getOrDefault(Type.OPEN_TEXT, 0), countsByType.getOrDefault(Type.SINGLE_CHOICE, 0),
+                    countsByType.getOrDefault(Type.MULTIPLE_CHOICE, 0), taskCounts[c]});
+
+            // As atividades só podem ir depois dos cursos a que pertencem
+            if (tasks.size() >= batchSize || courses.size() >= batchSize) {
+                insert(INSERT_COURSE, courses);
+                insert(INSERT_TASK, tasks);
+            }
+        }
+        insert(INSERT_COURSE, courses);
+        insert(INSERT_TASK, tasks);
+
+        totals.add(to - from, courseCount, taskCount);
+    }
+
+    private void seedStudents(int from, int to, String encodedPassword, Totals totals) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long firstId = reserveIds("user_seq", to - from);
+        List<Object[]> users = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            users.add(new Object[]{firstId + i - from, now, "Estudante " + i, STUDENT_EMAIL.formatted(i),
+                    Role.STUDENT.name(), encodedPassword});
+        }
+        insert(INSERT_USER, users);
+        totals.add(to - from, 0, 0);
+    }
+
+    /**
+     * Reserva {@code amount} ids consecutivos na tabela de sequência e devolve o primeiro. O próximo bloco lido pelo
+     * Hibernate começa depois do valor gravado menos o tamanho do bloco, daí a margem de {@link #ALLOCATION_SIZE}.
+     */
+    private long reserveIds(String sequenceTable, long amount) {
+        return transactionTemplate.execute(status -> {
+            Long first = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequenceTable + " FOR UPDATE", Long.class);
+            jdbcTemplate.update("UPDATE " + sequenceTable + " SET next_val = ?", first + amount + ALLOCATION_SIZE);
+            return first;
+        });
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+        }
+        rows.clear();
+    }
+
+    /**
+     * Proporção dos tipos de atividade no formato {@code OPEN_TEXT:40,SINGLE_CHOICE:30,MULTIPLE_CHOICE:30}.
+     */
+    record TypeMix(Type[] types, int[] cumulativeWeights) {
+
+        static TypeMix parse(String mix) {
+            List<Type> types = new ArrayList<>();
+            List<Integer> cumulative = new ArrayList<>();
+            int total = 0;
+            for (String entry : mix.split(",")) {
+                String[] parts = entry.trim().split(":");
+                int weight = Integer.parseInt(parts[1].trim());
+                if (weight <= 0) continue;
+                total += weight;
+                types.add(Type.valueOf(parts[0].trim()));
+                cumulative.add(total);
+            }
+            if (types.isEmpty()) throw new IllegalStateException("Mistura de tipos de atividade vazia: " + mix);
+            return new TypeMix(types.toArray(Type[]::new), cumulative.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        Type next(SplittableRandom random) {
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < types.length; i++) {
+                if (pick < cumulativeWeights[i]) return types[i];
+            }
+            return types[types.length - 1];
+        }
+    }
+
+    private static class Totals {
+
+        final AtomicLong users = new AtomicLong();
+        final AtomicLong courses = new AtomicLong();
+        final AtomicLong tasks = new AtomicLong();
+
+        void add(long users, long courses, long tasks) {
+            this.users.addAndGet(users);
+            this.courses.addAndGet(courses);
+            this.tasks.addAndGet(tasks);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.alura.AluraFake.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Amostragem pela cauda: todos os spans são gravados, mas só chegam ao exportador os traces sorteados pela
+ * {@code sampleRatio} e, sempre, os que demoraram mais que {@code slowThreshold}. Os spans de cada trace ficam
+ * guardados até terminar a raiz local (a requisição), quando a duração total é conhecida e a decisão é tomada; spans
+ * que terminam depois seguem a decisão já tomada.
+ * <p>
+ * O buffer é limitado pelo total de spans ({@code maxPendingSpans}), não pelo número de traces. Um trace que sai do
+ * buffer antes da raiz terminar (por falta de espaço ou mais de um minuto parado) é exportado, e o resto dele também:
+ * sob carga são justamente os traces lentos que ficam mais tempo esperando.
+ */
+class TailSamplingSpanProcessor implements SpanProcessor {
+
+    // Decisões só guardam um Boolean por trace; o limite é folgado para spans atrasados ainda encontrarem a sua
+    private static final int MAX_DECISIONS = 100_000;
+    private static final Duration PENDING_RETENTION = Duration.ofMinutes(1);
+
+    private final SpanProcessor delegate;
+    private final long sampledBelow;
+    private final long slowThresholdNanos;
+    private final Cache<String, List<ReadableSpan>> pending;
+    private final Cache<String, Boolean> decisions;
+
+    TailSamplingSpanProcessor(SpanProcessor delegate, double sampleRatio, Duration slowThreshold, long maxPendingSpans) {
+        this.delegate = delegate;
+        this.sampledBelow = (long) (Math.max(0, Math.min(1, sampleRatio)) * Long.MAX_VALUE);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.decisions = Caffeine.newBuilder()
+                .maximumSize(MAX_DECISIONS)
+                .expireAfterWrite(PENDING_RETENTION)
+                .build();
+        // Manutenção na própria thread: o trace despejado é exportado antes de quem o despejou seguir
+        this.pending = Caffeine.newBuilder()
+                .maximumWeight(maxPendingSpans)
+                .weigher((String traceId, List<ReadableSpan> spans) -> spans.size())
+                .expireAfterWrite(PENDING_RETENTION)
+                .executor(Runnable::run)
+                .evictionListener((String traceId, List<ReadableSpan> spans, RemovalCause cause) -> {
+                    decisions.put(traceId, true);
+                    spans.forEach(delegate::onEnd);
+                })
+                .build();
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        Boolean decided = decisions.getIfPresent(traceId);
+        if (decided != null) {
+            if (decided) delegate.onEnd(span);
+            return;
+        }
+
+        boolean root = isLocalRoot(span);
+        List<ReadableSpan> toExport = new ArrayList<>();
+        // Decisão conferida de novo dentro do compute: um filho que termina junto com a raiz ou entra na lista que
+        // ela exporta, ou já encontra a decisão tomada
+        pending.asMap().compute(traceId, (id, buffered) -> {
+            Boolean decidedMeanwhile = decisions.getIfPresent(id);
+            if (decidedMeanwhile != null) {
+                if (decidedMeanwhile) toExport.add(span);
+                return buffered;
+            }
+            List<ReadableSpan> spans = buffered != null ? buffered : new ArrayList<>();
+            spans.add(span);
+            if (!root) return spans;
+
+            boolean keep = span.getLatencyNanos() >= slowThresholdNanos || isSampled(id);
+            decisions.put(id, keep);
+            if (keep) toExport.addAll(spans);
+            return null;
+        });
+        toExport.forEach(delegate::onEnd);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    private static boolean isLocalRoot(ReadableSpan span) {
+        SpanContext parent = span.getParentSpanContext();
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    // Mesmo critério do TraceIdRatioBasedSampler: os 16 últimos dígitos do trace id comparados à fração
+    private boolean isSampled(String traceId) {
+        long randomPart = Long.parseUnsignedLong(traceId.substring(16), 16) & Long.MAX_VALUE;
+        return randomPart < sampledBelow;
+    }
+}
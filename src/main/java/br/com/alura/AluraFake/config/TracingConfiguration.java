@@ -0,0 +1,70 @@
+package br.com.alura.AluraFake.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+/**
+ * Rastreamento com Micrometer Tracing sobre OpenTelemetry. Viram spans as requisições HTTP (automático), os métodos
+ * de {@code CourseService}/{@code TaskService} ({@code @Observed}) e cada chamada de repositório. Os traces saem em
+ * JSON no formato OTLP pelo log ({@code io.opentelemetry.exporter.logging.otlp}), com trace e span id também nas linhas
+ * de log comuns.
+ * <p>
+ * O Sampler grava tudo ({@code management.tracing.sampling.probability=1.0}) e quem escolhe o que exportar é o
+ * {@link TailSamplingSpanProcessor}: a fração {@code api.tracing.sample-ratio} dos traces e todos os que passam de
+ * {@code api.tracing.slow-threshold}. Enquanto a raiz não termina, os spans esperam num buffer de até
+ * {@code api.tracing.max-pending-spans} spans.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    @Bean
+    public SpanExporter otlpJsonLoggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+
+    @Bean
+    public SpanProcessors spanProcessors(ObjectProvider<SpanProcessor> processors,
+                                         @Value("${api.tracing.sample-ratio:0.01}") double sampleRatio,
+                                         @Value("${api.tracing.slow-threshold:500ms}") Duration slowThreshold,
+                                         @Value("${api.tracing.max-pending-spans:100000}") long maxPendingSpans) {
+        SpanProcessor exporting = SpanProcessor.composite(processors.orderedStream().toList());
+        return SpanProcessors.of(new TailSamplingSpanProcessor(exporting, sampleRatio, slowThreshold, maxPendingSpans));
+    }
+
+    // Estático e com o registry resolvido só na chamada: BeanPostProcessors sobem antes dos demais beans
+    @Bean
+    public static BeanPostProcessor repositoryObservationPostProcessor(ObjectProvider<ObservationRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, information) -> proxy.addAdvice(observing(information.getRepositoryInterface(), registry))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor observing(Class<?> repository, ObjectProvider<ObservationRegistry> registry) {
+        String name = repository.getSimpleName();
+        return invocation -> Observation.createNotStarted("api.repository", registry.getIfAvailable(() -> ObservationRegistry.NOOP))
+                .contextualName(name + "." + invocation.getMethod().getName())
+                .lowCardinalityKeyValue("repository", name)
+                .lowCardinalityKeyValue("method", invocation.getMethod().getName())
+                .observeChecked(invocation::proceed);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.alura.AluraFake.infra.dto.course;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Cursos a publicar: uma lista explícita de ids ou, sem ela, todos os cursos em BUILDING do instrutor informado.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchPublishRequestDTO {
+
+    @Size(max = 10000, message = "O lote pode ter no máximo 10000 cursos")
+    private List<Long> courseIds;
+
+    private Long instructorId;
+}
@@ -0,0 +1,10 @@
+package br.com.alura.AluraFake.infra.dto.course;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskContentDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record CourseContentDTO(Long id, String title, String description, LocalDateTime publishedAt,
+                               List<TaskContentDTO> tasks) {
+}
@@ -19,6 +19,13 @@ public class CourseListItemDTO implements Serializable {
         this.status = course.getStatus();
     }
 
+    public CourseListItemDTO(Long id, String title, String description, Status status) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+    }
+
     public Long getId() {
         return id;
     }
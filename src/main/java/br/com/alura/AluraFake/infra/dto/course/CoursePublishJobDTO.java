@@ -0,0 +1,7 @@
+package br.com.alura.AluraFake.infra.dto.course;
+
+import java.util.List;
+
+public record CoursePublishJobDTO(String jobId, boolean finished, int total, int published, int failed,
+                                  List<CoursePublishResultDTO> results) {
+}
@@ -0,0 +1,8 @@
+package br.com.alura.AluraFake.infra.dto.course;
+
+/**
+ * Situação de um curso dentro de um job de publicação: PENDING, PUBLISHED ou FAILED, com a mensagem de validação
+ * quando falhou.
+ */
+public record CoursePublishResultDTO(Long courseId, String status, String message) {
+}
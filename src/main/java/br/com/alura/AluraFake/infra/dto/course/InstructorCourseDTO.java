@@ -13,10 +13,14 @@ public class InstructorCourseDTO {
     private long taskCount;
 
     public InstructorCourseDTO(Course course, long taskCount) {
-        this.id = course.getId();
-        this.title = course.getTitle();
-        this.status = course.getStatus();
-        this.publishedAt = course.getPublishedAt();
+        this(course.getId(), course.getTitle(), course.getStatus(), course.getPublishedAt(), taskCount);
+    }
+
+    public InstructorCourseDTO(Long id, String title, Status status, LocalDateTime publishedAt, long taskCount) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.publishedAt = publishedAt;
         this.taskCount = taskCount;
     }
 
@@ -0,0 +1,33 @@
+package br.com.alura.AluraFake.infra.dto.task;
+
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTaskItemDTO {
+
+    @NotNull(message = "O tipo da atividade é obrigatório")
+    private Type type;
+
+    @NotBlank(message = "O enunciado é obrigatório")
+    @Size(min = 4, max = 255, message = "O enunciado deve ter entre 4 e 255 caracteres")
+    private String statement;
+
+    @NotNull(message = "A ordem é obrigatória")
+    @Positive(message = "A ordem deve ser um número inteiro positivo")
+    private Integer order;
+
+    // Obrigatórias apenas para SINGLE_CHOICE e MULTIPLE_CHOICE
+    @Valid
+    private List<OptionDTO> options;
+}
@@ -0,0 +1,23 @@
+package br.com.alura.AluraFake.infra.dto.task;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTaskRequestDTO {
+
+    @NotEmpty(message = "O lote deve conter ao menos uma atividade")
+    @Size(max = 1000, message = "O lote pode ter no máximo 1000 atividades")
+    @Valid
+    private List<BatchTaskItemDTO> tasks;
+}
@@ -0,0 +1,9 @@
+package br.com.alura.AluraFake.infra.dto.task;
+
+import br.com.alura.AluraFake.infra.enumerated.Type;
+
+import java.util.List;
+
+// Só os textos das alternativas: o conteúdo é lido por alunos, então não revela quais estão corretas
+public record TaskContentDTO(int order, String statement, Type type, List<String> options) {
+}
@@ -0,0 +1,14 @@
+package br.com.alura.AluraFake.infra.dto.task;
+
+/**
+ * Agregado das ordens das atividades de um curso. A sequência é contínua (1..n) quando a menor ordem é 1 e
+ * total, ordens distintas e maior ordem coincidem.
+ */
+public record TaskOrderSummaryDTO(long total, long distinctOrders, Integer minOrder, Integer maxOrder) {
+
+    public static TaskOrderSummaryDTO continuous(long total) {
+        return total == 0
+                ? new TaskOrderSummaryDTO(0, 0, null, null)
+                : new TaskOrderSummaryDTO(total, total, 1, (int) total);
+    }
+}
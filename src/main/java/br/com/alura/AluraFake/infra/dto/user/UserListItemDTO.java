@@ -17,6 +17,12 @@ public class UserListItemDTO implements Serializable {
         this.role = user.getRole();
     }
 
+    public UserListItemDTO(String name, String email, Role role) {
+        this.name = name;
+        this.email = email;
+        this.role = role;
+    }
+
     public String getName() {
         return name;
     }
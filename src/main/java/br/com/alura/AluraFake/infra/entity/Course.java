@@ -1,6 +1,7 @@
 package br.com.alura.AluraFake.infra.entity;
 
 import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.enumerated.Type;
 import jakarta.persistence.*;
 import org.springframework.util.Assert;
 
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId(table = "course_seq")
     private Long id;
     private LocalDateTime createdAt = LocalDateTime.now();
     private String title;
@@ -21,6 +22,12 @@ public class Course {
     private Status status;
     private LocalDateTime publishedAt;
 
+    // Contadores mantidos a cada atividade criada, para não recontar a tabela de atividades em relatórios e publicação
+    private int openTextTaskCount;
+    private int singleChoiceTaskCount;
+    private int multipleChoiceTaskCount;
+    private int maxTaskOrder;
+
     @Deprecated
     public Course(){}
 
@@ -67,4 +74,51 @@ public class Course {
     public LocalDateTime getPublishedAt() {
         return publishedAt;
     }
+
+    public int getOpenTextTaskCount() {
+        return openTextTaskCount;
+    }
+
+    public int getSingleChoiceTaskCount() {
+        return singleChoiceTaskCount;
+    }
+
+    public int getMultipleChoiceTaskCount() {
+        return multipleChoiceTaskCount;
+    }
+
+    public int getMaxTaskOrder() {
+        return maxTaskOrder;
+    }
+
+    public int getTaskCount() {
+        return openTextTaskCount + singleChoiceTaskCount + multipleChoiceTaskCount;
+    }
+
+    public boolean hasTaskOfType(Type type) {
+        return switch (type) {
+            case OPEN_TEXT -> openTextTaskCount > 0;
+            case SINGLE_CHOICE -> singleChoiceTaskCount > 0;
+            case MULTIPLE_CHOICE -> multipleChoiceTaskCount > 0;
+        };
+    }
+
+    public void registerTask(Type type, Integer orderNumber) {
+        switch (type) {
+            case OPEN_TEXT -> openTextTaskCount++;
+            case SINGLE_CHOICE -> singleChoiceTaskCount++;
+            case MULTIPLE_CHOICE -> multipleChoiceTaskCount++;
+        }
+        // Sem ordem gravada (ordenação esparsa) a ordem densa derivada sempre cresce uma posição
+        maxTaskOrder = orderNumber == null ? maxTaskOrder + 1 : Math.max(maxTaskOrder, orderNumber);
+    }
+
+    // Ao abrir espaço para uma atividade, a última é empurrada uma posição para frente
+    public void registerTasksShifted() {
+        registerTasksShifted(1);
+    }
+
+    public void registerTasksShifted(int positions) {
+        maxTaskOrder += positions;
+    }
 }
@@ -0,0 +1,53 @@
+package br.com.alura.AluraFake.infra.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Conteúdo de um curso publicado já serializado em JSON, gerado uma única vez na publicação: depois dela as
+ * atividades não mudam mais. Guardado no banco para sobreviver a reinícios sem reler a tabela de atividades.
+ */
+@Entity
+@Table(name = "course_content")
+public class CourseContent {
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(nullable = false, length = 66)
+    private String etag;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] body;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Deprecated
+    public CourseContent() {}
+
+    public CourseContent(Long courseId, String etag, byte[] body) {
+        this.courseId = courseId;
+        this.etag = etag;
+        this.body = body;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
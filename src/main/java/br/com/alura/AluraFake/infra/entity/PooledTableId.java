@@ -0,0 +1,23 @@
+package br.com.alura.AluraFake.infra.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Id reservado em blocos numa tabela {@code *_seq} (o MySQL não tem SEQUENCE), como o gerador "pooled" do
+ * Hibernate. A diferença está em {@link PooledTableIdGenerator}: o bloco é buscado por um pool de conexões próprio.
+ */
+@IdGeneratorType(PooledTableIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface PooledTableId {
+
+    String table();
+
+    int allocationSize() default 50;
+}
@@ -0,0 +1,170 @@
+package br.com.alura.AluraFake.infra.entity;
+
+import org.hibernate.MappingException;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.jdbc.env.spi.JdbcEnvironment;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.enhanced.TableStructure;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Member;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * O gerador padrão busca um novo bloco de ids por uma segunda conexão, isolada da transação corrente, tirada do
+ * mesmo pool da aplicação. Com o pool inteiro ocupado por transações esperando o gerador, ninguém avança até o
+ * connection-timeout. Aqui o bloco é buscado pelo DataSource registrado em {@link #DATA_SOURCE}, um pool pequeno
+ * usado só para isso (ver DataSourceConfiguration).
+ */
+public class PooledTableIdGenerator extends SequenceStyleGenerator {
+
+    public static final String DATA_SOURCE = "api.id-generator.data-source";
+
+    private final PooledTableId config;
+    private DataSource dataSource;
+
+    public PooledTableIdGenerator(PooledTableId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        Object configured = serviceRegistry.requireService(ConfigurationService.class).getSettings().get(DATA_SOURCE);
+        if (!(configured instanceof DataSource source)) {
+            throw new MappingException("Nenhum DataSource configurado em " + DATA_SOURCE + " para a tabela " + config.table());
+        }
+        this.dataSource = source;
+
+        parameters.put(SEQUENCE_PARAM, config.table());
+        parameters.put(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        parameters.put(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+        // Mesmo num banco com SEQUENCE (MariaDB), os ids continuam vindo das tabelas criadas pela V9
+        parameters.put(FORCE_TBL_PARAM, "true");
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    protected DatabaseStructure buildTableStructure(Type type, Properties parameters, JdbcEnvironment jdbcEnvironment,
+                                                    QualifiedName sequenceName, int initialValue, int incrementSize) {
+        return new IsolatedTableStructure(jdbcEnvironment, parameters.getProperty(CONTRIBUTOR_NAME, "orm"), sequenceName,
+                determineValueColumnName(parameters, jdbcEnvironment), initialValue, incrementSize,
+                type.getReturnedClass(), dataSource);
+    }
+
+    // A tabela continua sendo criada e inicializada pelo TableStructure; só a leitura do bloco muda de conexão
+    private static class IsolatedTableStructure extends TableStructure {
+
+        private final Identifier valueColumn;
+        private final int incrementSize;
+        private final Class<?> numberType;
+        private final DataSource dataSource;
+        private final AtomicInteger accessCounter = new AtomicInteger();
+        private boolean applyIncrementSize;
+        private String selectQuery;
+        private String updateQuery;
+
+        IsolatedTableStructure(JdbcEnvironment jdbcEnvironment, String contributor, QualifiedName tableName,
+                               Identifier valueColumn, int initialValue, int incrementSize, Class<?> numberType,
+                               DataSource dataSource) {
+            super(jdbcEnvironment, contributor, tableName, valueColumn, initialValue, incrementSize, numberType);
+            this.valueColumn = valueColumn;
+            this.incrementSize = incrementSize;
+            this.numberType = numberType;
+            this.dataSource = dataSource;
+        }
+
+        @Override
+        public void prepare(Optimizer optimizer) {
+            super.prepare(optimizer);
+            this.applyIncrementSize = optimizer.applyIncrementSizeToSourceValues();
+        }
+
+        @Override
+        public void initialize(SqlStringGenerationContext context) {
+            super.initialize(context);
+            Dialect dialect = context.getDialect();
+            String table = context.format(getPhysicalName());
+            String column = valueColumn.render(dialect);
+            this.selectQuery = "select " + column + " from " + table + dialect.getForUpdateString();
+            this.updateQuery = "update " + table + " set " + column + " = ? where " + column + " = ?";
+        }
+
+        @Override
+        public AccessCallback buildCallback(SharedSessionContractImplementor session) {
+            return new AccessCallback() {
+                @Override
+                public IntegralDataTypeHolder getNextValue() {
+                    try {
+                        return nextBlock();
+                    } catch (SQLException e) {
+                        throw session.getJdbcServices().getSqlExceptionHelper()
+                                .convert(e, "Falha ao reservar ids em " + getPhysicalName().render(), selectQuery);
+                    }
+                }
+
+                @Override
+                public String getTenantIdentifier() {
+                    return session.getTenantIdentifier();
+                }
+            };
+        }
+
+        @Override
+        public int getTimesAccessed() {
+            return accessCounter.get();
+        }
+
+        private IntegralDataTypeHolder nextBlock() throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    long value = reserve(connection);
+                    connection.commit();
+                    accessCounter.incrementAndGet();
+                    return IdentifierGeneratorHelper.getIntegralDataTypeHolder(numberType).initialize(value);
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            }
+        }
+
+        // Mesmo protocolo do TableStructure: lê o valor atual e só avança se ninguém o mudou no meio
+        private long reserve(Connection connection) throws SQLException {
+            while (true) {
+                long value;
+                try (PreparedStatement select = connection.prepareStatement(selectQuery);
+                     ResultSet result = select.executeQuery()) {
+                    if (!result.next()) {
+                        throw new SQLException("Tabela de ids " + getPhysicalName().render() + " vazia");
+                    }
+                    value = result.getLong(1);
+                }
+                try (PreparedStatement update = connection.prepareStatement(updateQuery)) {
+                    update.setLong(1, value + (applyIncrementSize ? incrementSize : 1));
+                    update.setLong(2, value);
+                    if (update.executeUpdate() == 1) return value;
+                }
+            }
+        }
+    }
+}
@@ -4,12 +4,17 @@ import br.com.alura.AluraFake.infra.enumerated.Type;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
+@Table(uniqueConstraints = {
+        @UniqueConstraint(name = "uk_task_course_order", columnNames = {"course_id", "order_number"}),
+        @UniqueConstraint(name = "uk_task_course_statement", columnNames = {"course_id", "statement"})
+})
 public class Task {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId(table = "task_seq")
     private Long id;
 
     @Column(name = "created_at")
@@ -18,9 +23,13 @@ public class Task {
     @Column(nullable = false, length = 255)
     private String statement;
 
-    @Column(name = "order_number", nullable = false)
+    // Vazio no modo de ordenação esparsa, em que a posição vem de rankKey
+    @Column(name = "order_number")
     private Integer orderNumber;
 
+    @Column(name = "rank_key")
+    private Long rankKey;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Type type;
@@ -29,6 +38,13 @@ public class Task {
     @JoinColumn(name = "course_id", nullable = false)
     private Course course;
 
+    // Alternativas empacotadas na própria linha (ver TaskOption); vazias nas atividades de texto livre
+    @Column(name = "options_text", length = 500)
+    private String optionsText;
+
+    @Column(name = "correct_options")
+    private Integer correctOptions;
+
     @Deprecated
     public Task() {}
 
@@ -39,6 +55,17 @@ public class Task {
         this.course = course;
     }
 
+    public Task(String statement, Integer orderNumber, Type type, Course course, List<TaskOption> options) {
+        this(statement, orderNumber, type, course);
+        this.optionsText = TaskOption.packTexts(options);
+        this.correctOptions = TaskOption.packCorrect(options);
+    }
+
+    @PrePersist
+    private void registerOnCourse() {
+        course.registerTask(type, orderNumber);
+    }
+
     public Long getId() {
         return id;
     }
@@ -59,14 +86,23 @@ public class Task {
         return type;
     }
 
+    public Long getRankKey() {
+        return rankKey;
+    }
+
     public Course getCourse() {
         return course;
     }
 
+    public List<TaskOption> getOptions() {
+        return TaskOption.unpack(optionsText, correctOptions);
+    }
+
     public void setOrderNumber(Integer orderNumber) {
         this.orderNumber = orderNumber;
     }
-}
-
-
 
+    public void setRankKey(Long rankKey) {
+        this.rankKey = rankKey;
+    }
+}
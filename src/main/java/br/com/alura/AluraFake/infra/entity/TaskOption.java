@@ -0,0 +1,51 @@
+package br.com.alura.AluraFake.infra.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Alternativa de uma atividade de escolha. No banco, todas as alternativas de uma atividade ficam na própria linha de
+ * {@code task}: os textos em {@code options_text}, separados por {@link #SEPARATOR}, e as corretas em
+ * {@code correct_options}, em que o bit i marca a alternativa i. Assim as alternativas vêm na mesma linha da
+ * atividade, sem tabela filha nem consulta extra por atividade.
+ */
+public record TaskOption(String text, boolean correct) {
+
+    // Caractere de controle "unit separator": a validação das alternativas recusa caracteres de controle no texto
+    public static final char SEPARATOR = '\u001F';
+
+    static String packTexts(List<TaskOption> options) {
+        if (options == null || options.isEmpty()) return null;
+
+        StringBuilder packed = new StringBuilder(options.size() * 24);
+        for (TaskOption option : options) {
+            if (!packed.isEmpty()) packed.append(SEPARATOR);
+            packed.append(option.text());
+        }
+        return packed.toString();
+    }
+
+    static Integer packCorrect(List<TaskOption> options) {
+        if (options == null || options.isEmpty()) return null;
+
+        int mask = 0;
+        for (int i = 0; i < options.size(); i++) {
+            if (options.get(i).correct()) mask |= 1 << i;
+        }
+        return mask;
+    }
+
+    static List<TaskOption> unpack(String texts, Integer correct) {
+        if (texts == null) return List.of();
+
+        int mask = correct == null ? 0 : correct;
+        List<TaskOption> options = new ArrayList<>(5);
+        int start = 0;
+        for (int end = texts.indexOf(SEPARATOR); ; end = texts.indexOf(SEPARATOR, start)) {
+            String text = end < 0 ? texts.substring(start) : texts.substring(start, end);
+            options.add(new TaskOption(text, (mask & (1 << options.size())) != 0));
+            if (end < 0) return options;
+            start = end + 1;
+        }
+    }
+}
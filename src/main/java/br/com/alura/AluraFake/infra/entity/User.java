@@ -1,8 +1,11 @@
 package br.com.alura.AluraFake.infra.entity;
 
 import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.security.UserSecurityListener;
 import br.com.alura.AluraFake.util.PasswordGeneration;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,10 +15,13 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@EntityListeners(UserSecurityListener.class)
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId(table = "user_seq")
     private Long id;
     private LocalDateTime createdAt = LocalDateTime.now();
     private String name;
@@ -24,6 +30,13 @@ public class User implements UserDetails {
     private String email;
     // Por questões didáticas, a senha será armazenada em texto plano.
     private String password;
+    // Incrementada pelo Hibernate na mesma transação de qualquer alteração do usuário; tokens com versão menor
+    // ficam revogados (ver TokenRevocationList)
+    @Version
+    private int tokenVersion;
+    // Email como está no banco, para a alteração de email também invalidar o principal cacheado pelo email antigo
+    @Transient
+    private String persistedEmail;
 
     @Deprecated
     public User() {}
@@ -59,6 +72,22 @@ public class User implements UserDetails {
         return role;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public String getPersistedEmail() {
+        return persistedEmail;
+    }
+
+    // Roda depois dos callbacks do UserSecurityListener, que ainda enxergam o email anterior
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    private void rememberPersistedEmail() {
+        this.persistedEmail = this.email;
+    }
+
     public boolean isInstructor() {
         return Role.INSTRUCTOR.equals(this.role);
     }
@@ -0,0 +1,44 @@
+package br.com.alura.AluraFake.infra.enumerated;
+
+/**
+ * Motivo de uma resposta 4xx, usado como tag {@code reason} da métrica {@code api.validation.failures}. O código é
+ * fixo e independe do nome do método que valida ou da mensagem (que carrega ordens e enunciados): renomear ou mover
+ * uma validação não muda as séries já gravadas.
+ */
+public enum FailureReason {
+
+    COURSE_NOT_FOUND("course-not-found"),
+    COURSE_NOT_PUBLISHED("course-not-published"),
+    COURSE_NOT_BUILDING("course-not-building"),
+    COURSE_WITHOUT_TASKS("course-without-tasks"),
+    COURSE_MISSING_TASK_TYPE("course-missing-task-type"),
+    COURSE_ORDER_NOT_STARTING_AT_ONE("course-order-not-starting-at-one"),
+    COURSE_ORDER_REPEATED("course-order-repeated"),
+    COURSE_ORDER_GAP("course-order-gap"),
+    USER_NOT_FOUND("user-not-found"),
+    USER_NOT_INSTRUCTOR("user-not-instructor"),
+    DUPLICATE_STATEMENT("duplicate-statement"),
+    SINGLE_CHOICE_CORRECT_COUNT("single-choice-correct-count"),
+    MULTIPLE_CHOICE_TOO_FEW_CORRECT("multiple-choice-too-few-correct"),
+    MULTIPLE_CHOICE_WITHOUT_INCORRECT("multiple-choice-without-incorrect"),
+    OPTIONS_MISSING("options-missing"),
+    OPTIONS_COUNT("options-count"),
+    OPTION_LENGTH("option-length"),
+    OPTION_CONTROL_CHARACTERS("option-control-characters"),
+    OPTION_EQUALS_STATEMENT("option-equals-statement"),
+    OPTIONS_REPEATED("options-repeated"),
+    TASK_ORDER_NOT_STARTING_AT_ONE("task-order-not-starting-at-one"),
+    TASK_ORDER_GAP("task-order-gap"),
+    PUBLISH_JOB_NOT_FOUND("publish-job-not-found"),
+    PUBLISH_TARGET_MISSING("publish-target-missing");
+
+    private final String code;
+
+    FailureReason(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
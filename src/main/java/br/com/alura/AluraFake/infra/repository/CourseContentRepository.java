@@ -0,0 +1,20 @@
+package br.com.alura.AluraFake.infra.repository;
+
+import br.com.alura.AluraFake.infra.entity.CourseContent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CourseContentRepository extends JpaRepository<CourseContent, Long> {
+
+    // Duas instâncias gerando o mesmo conteúdo ao mesmo tempo: a segunda não falha com chave duplicada, a linha da
+    // primeira fica como está
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO course_content (course_id, etag, body, created_at) VALUES (:courseId, :etag, :body, CURRENT_TIMESTAMP)
+            ON DUPLICATE KEY UPDATE course_id = course_id""", nativeQuery = true)
+    void insertIfAbsent(@Param("courseId") Long courseId, @Param("etag") String etag, @Param("body") byte[] body);
+}
@@ -1,14 +1,84 @@
 package br.com.alura.AluraFake.infra.repository;
 
+import br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO;
+import br.com.alura.AluraFake.infra.dto.course.InstructorCourseDTO;
 import br.com.alura.AluraFake.infra.enumerated.Status;
 import br.com.alura.AluraFake.infra.entity.Course;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface CourseRepository extends JpaRepository<Course, Long>{
 
-    List<Course> findByInstructorId(Long instructorId);
+    // SELECT ... FOR UPDATE na linha do curso: serializa quem escreve atividades no mesmo curso até o fim da transação
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :id")
+    Optional<Course> findByIdForUpdate(@Param("id") Long id);
+
+    // Ordenado por id para que lotes concorrentes travem as linhas sempre na mesma ordem e não entrem em deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id IN :ids ORDER BY c.id")
+    List<Course> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT c.id FROM Course c
+            WHERE c.status = br.com.alura.AluraFake.infra.enumerated.Status.BUILDING
+              AND c.instructor.id = :instructorId
+            ORDER BY c.id
+            """)
+    List<Long> findIdsInBuildingByInstructor(@Param("instructorId") Long instructorId);
+
+    // Relatório do instrutor em uma única consulta, lendo a contagem de atividades dos contadores do curso
+    @Query("""
+            SELECT new br.com.alura.AluraFake.infra.dto.course.InstructorCourseDTO(
+                c.id, c.title, c.status, c.publishedAt,
+                CAST(c.openTextTaskCount + c.singleChoiceTaskCount + c.multipleChoiceTaskCount AS Long))
+            FROM Course c
+            WHERE c.instructor.id = :instructorId
+            ORDER BY c.id ASC
+            """)
+    List<InstructorCourseDTO> findInstructorReport(@Param("instructorId") Long instructorId);
+
+    @Query("""
+            SELECT new br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO(c.id, c.title, c.description, c.status)
+            FROM Course c
+            WHERE c.id > :afterId
+              AND (:status IS NULL OR c.status = :status)
+              AND (:instructorId IS NULL OR c.instructor.id = :instructorId)
+            ORDER BY c.id ASC
+            """)
+    List<CourseListItemDTO> findPageAfter(@Param("afterId") Long afterId,
+                                          @Param("status") Status status,
+                                          @Param("instructorId") Long instructorId,
+                                          Limit limit);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO(c.id, c.title, c.description, c.status) FROM Course c ORDER BY c.id")
+    Stream<CourseListItemDTO> streamAllForExport();
 
-    long countByInstructorIdAndStatus(Long instructorId, Status status);
+    // Recalcula os contadores de atividades a partir da tabela de atividades; sem courseId, recalcula todos os cursos
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Course c SET
+                c.openTextTaskCount = (SELECT COUNT(t) FROM Task t WHERE t.course = c AND t.type = br.com.alura.AluraFake.infra.enumerated.Type.OPEN_TEXT),
+                c.singleChoiceTaskCount = (SELECT COUNT(t) FROM Task t WHERE t.course = c AND t.type = br.com.alura.AluraFake.infra.enumerated.Type.SINGLE_CHOICE),
+                c.multipleChoiceTaskCount = (SELECT COUNT(t) FROM Task t WHERE t.course = c AND t.type = br.com.alura.AluraFake.infra.enumerated.Type.MULTIPLE_CHOICE),
+                c.maxTaskOrder = COALESCE((SELECT MAX(t.orderNumber) FROM Task t WHERE t.course = c), 0)
+                    + (SELECT COUNT(t) FROM Task t WHERE t.course = c AND t.orderNumber IS NULL)
+            WHERE :courseId IS NULL OR c.id = :courseId
+            """)
+    int rebuildTaskCounters(@Param("courseId") Long courseId);
 }
@@ -1,5 +1,6 @@
 package br.com.alura.AluraFake.infra.repository;
 
+import br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO;
 import br.com.alura.AluraFake.infra.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -12,21 +13,51 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
 
     boolean existsByCourseIdAndStatement(Long courseId, String statement);
 
+    @Query("SELECT t.statement FROM Task t WHERE t.course.id = :courseId AND t.statement IN :statements")
+    List<String> findStatementsIn(@Param("courseId") Long courseId, @Param("statements") List<String> statements);
+
     @Query("SELECT MAX(t.orderNumber) FROM Task t WHERE t.course.id = :courseId")
     Integer findMaxOrderByCourseId(Long courseId);
 
-    @Query("SELECT t FROM Task t WHERE t.course.id = :courseId AND t.orderNumber >= :orderNumber ORDER BY t.orderNumber ASC")
-    List<Task> findByCourseIdAndOrderNumberGreaterThanEqual(@Param("courseId") Long courseId,
-                                                             @Param("orderNumber") Integer orderNumber);
-
-    @Modifying
-    @Query("UPDATE Task t SET t.orderNumber = t.orderNumber + 1 WHERE t.course.id = :courseId AND t.orderNumber >= :fromOrder")
-    void shiftOrdersFrom(@Param("courseId") Long courseId, @Param("fromOrder") Integer fromOrder);
+    /**
+     * Empurra em {@code delta} posições todas as atividades do curso a partir de {@code fromOrder}, com dois UPDATEs
+     * em lote. Os valores passam por negativos no meio do caminho para que nenhuma linha colida com outra numa
+     * restrição única de (course_id, order_number), qualquer que seja a ordem em que o banco atualize as linhas.
+     * Ao final o contexto de persistência é limpo: entidades carregadas antes da chamada devem ser buscadas de novo.
+     */
+    default void shiftOrdersFrom(Long courseId, Integer fromOrder, int delta) {
+        moveOrdersToNegative(courseId, fromOrder, delta);
+        restoreNegativeOrders(courseId);
+    }
+
+    default void shiftOrdersFrom(Long courseId, Integer fromOrder) {
+        shiftOrdersFrom(courseId, fromOrder, 1);
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Task t SET t.orderNumber = -(t.orderNumber + :delta) WHERE t.course.id = :courseId AND t.orderNumber >= :fromOrder")
+    int moveOrdersToNegative(@Param("courseId") Long courseId, @Param("fromOrder") Integer fromOrder, @Param("delta") int delta);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Task t SET t.orderNumber = -t.orderNumber WHERE t.course.id = :courseId AND t.orderNumber < 0")
+    int restoreNegativeOrders(@Param("courseId") Long courseId);
 
     boolean existsByCourseIdAndOrderNumber(Long courseId, Integer orderNumber);
 
     List<Task> findByCourseIdOrderByOrderNumberAsc(Long courseId);
 
+    List<Task> findByCourseIdOrderByRankKeyAsc(Long courseId);
+
+    @Query("""
+            SELECT new br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO(
+                COUNT(t), COUNT(DISTINCT t.orderNumber), MIN(t.orderNumber), MAX(t.orderNumber))
+            FROM Task t
+            WHERE t.course.id = :courseId
+            """)
+    TaskOrderSummaryDTO summarizeOrders(@Param("courseId") Long courseId);
+
+    boolean existsByCourseIdAndRankKeyIsNull(Long courseId);
+
     long countByCourseId(Long courseId);
 }
 
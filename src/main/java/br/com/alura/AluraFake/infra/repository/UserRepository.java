@@ -1,14 +1,39 @@
 package br.com.alura.AluraFake.infra.repository;
 
 
+import br.com.alura.AluraFake.infra.dto.user.UserListItemDTO;
 import br.com.alura.AluraFake.infra.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
     boolean existsByEmail(String email);
 
+    // Resultado no cache de consultas; qualquer escrita na tabela User pelo Hibernate o invalida
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+    // Update em massa: o Hibernate invalida a região "user" do cache de segundo nível sozinho
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    // Fetch size Integer.MIN_VALUE faz o driver do MySQL ler as linhas uma a uma, sem bufferizar o resultado
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT new br.com.alura.AluraFake.infra.dto.user.UserListItemDTO(u.name, u.email, u.role) FROM User u ORDER BY u.id")
+    Stream<UserListItemDTO> streamAllForExport();
 }
@@ -5,6 +5,7 @@ import br.com.alura.AluraFake.infra.security.LoginResponseDTO;
 import br.com.alura.AluraFake.infra.security.RegisterRequestDTO;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
 import br.com.alura.AluraFake.util.ErrorItemDTO;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -34,6 +36,9 @@ public class AuthenticationController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ContentVersions contentVersions;
+
     @PostMapping("/login")
     public ResponseEntity login(@RequestBody @Valid LoginRequestDTO data) {
         var usernamePassword = new UsernamePasswordAuthenticationToken(data.getEmail(), data.getPassword());
@@ -44,6 +49,7 @@ public class AuthenticationController {
         return ResponseEntity.ok(new LoginResponseDTO(token));
     }
 
+    @Transactional
     @PostMapping("/register")
     public ResponseEntity register(@RequestBody @Valid RegisterRequestDTO data) {
         if (userRepository.existsByEmail(data.getEmail())) {
@@ -55,6 +61,7 @@ public class AuthenticationController {
         User newUser = data.toModel(encryptedPassword);
 
         userRepository.save(newUser);
+        contentVersions.usersChanged();
 
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
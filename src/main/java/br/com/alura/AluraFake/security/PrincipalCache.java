@@ -0,0 +1,55 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.CacheLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+public class PrincipalCache {
+
+    private final AsyncCache<String, User> principals;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    public PrincipalCache(@Value("${api.security.principal-cache.maximum-size:10000}") long maximumSize,
+                          @Value("${api.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    public Optional<User> findByEmail(String email) {
+        if (email == null || email.isBlank()) return Optional.empty();
+
+        // Emails inexistentes não são cacheados (o loader devolve null), assim um cadastro novo não fica preso em "não encontrado"
+        return Optional.ofNullable(CacheLoading.get(principals, email, key -> userRepository.findByEmail(key).orElse(null)));
+    }
+
+    public void invalidate(String email) {
+        if (email != null) principals.synchronous().invalidate(email);
+    }
+
+    public void invalidateAll() {
+        principals.synchronous().invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return principals.synchronous().stats();
+    }
+
+    public long size() {
+        return principals.synchronous().estimatedSize();
+    }
+}
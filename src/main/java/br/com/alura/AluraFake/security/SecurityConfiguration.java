@@ -1,6 +1,10 @@
 package br.com.alura.AluraFake.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -28,10 +32,15 @@ public class SecurityConfiguration {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(authorize -> authorize
                         // Public endpoints
+                        // O despacho para /error não passa de novo pelo SecurityFilter; sem isso todo 4xx vira 403
+                        .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                         .requestMatchers(HttpMethod.GET, "/").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
 
+                        // Actuator: só responde na porta de gerenciamento, que não é exposta publicamente
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+
                         // Swagger/OpenAPI endpoints
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
 
@@ -39,10 +48,13 @@ public class SecurityConfiguration {
                         .requestMatchers(HttpMethod.POST, "/task/new/**").hasRole("INSTRUCTOR")
                         .requestMatchers(HttpMethod.POST, "/course/new").hasRole("INSTRUCTOR")
                         .requestMatchers(HttpMethod.POST, "/course/{id}/publish").hasRole("INSTRUCTOR")
+                        .requestMatchers(HttpMethod.POST, "/course/{id}/tasks/batch").hasRole("INSTRUCTOR")
+                        .requestMatchers("/course/publish/batch/**").hasRole("INSTRUCTOR")
                         .requestMatchers(HttpMethod.GET, "/instructor/{id}/courses").hasRole("INSTRUCTOR")
 
                         // Listing endpoints - any authenticated user
                         .requestMatchers(HttpMethod.GET, "/course/all").authenticated()
+                        .requestMatchers(HttpMethod.GET, "/course/{id}/content").authenticated()
                         .requestMatchers(HttpMethod.GET, "/user/all").authenticated()
                         .requestMatchers(HttpMethod.POST, "/user/new").authenticated()
 
@@ -1,11 +1,13 @@
 package br.com.alura.AluraFake.security;
 
-import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +15,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
@@ -21,15 +24,19 @@ public class SecurityFilter extends OncePerRequestFilter {
     private TokenService tokenService;
 
     @Autowired
-    private UserRepository userRepository;
+    private PrincipalCache principalCache;
+
+    @Value("${api.security.stateless-authentication:true}")
+    private boolean statelessAuthentication;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         var token = this.recoverToken(request);
         if (token != null) {
-            var email = tokenService.validateToken(token);
-            UserDetails user = userRepository.findByEmail(email).orElse(null);
+            UserDetails user = tokenService.verify(token)
+                    .flatMap(this::resolvePrincipal)
+                    .orElse(null);
 
             if (user != null) {
                 var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
@@ -39,6 +46,27 @@ public class SecurityFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private Optional<? extends UserDetails> resolvePrincipal(DecodedJWT jwt) {
+        if (statelessAuthentication) {
+            Optional<AuthenticatedUser> fromClaims = principalFromClaims(jwt);
+            if (fromClaims.isPresent()) return fromClaims;
+        }
+        // Tokens emitidos antes das claims de id/role (ou modo stateless desligado) ainda dependem do banco
+        return principalCache.findByEmail(jwt.getSubject());
+    }
+
+    private Optional<AuthenticatedUser> principalFromClaims(DecodedJWT jwt) {
+        Long userId = jwt.getClaim(TokenService.USER_ID_CLAIM).asLong();
+        String role = jwt.getClaim(TokenService.ROLE_CLAIM).asString();
+        if (userId == null || role == null) return Optional.empty();
+
+        try {
+            return Optional.of(new AuthenticatedUser(userId, jwt.getSubject(), Role.valueOf(role)));
+        } catch (IllegalArgumentException exception) {
+            return Optional.empty();
+        }
+    }
+
     private String recoverToken(HttpServletRequest request) {
         var authHeader = request.getHeader("Authorization");
         if (authHeader == null) return null;
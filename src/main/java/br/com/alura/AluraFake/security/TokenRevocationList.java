@@ -0,0 +1,81 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.CacheLoading;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Versão de token por usuário. Cada token carrega a versão vigente no momento em que foi emitido e fica revogado
+ * quando a versão do usuário passa dela. A versão é a coluna {@code tokenVersion} de User, que só cresce: o
+ * Hibernate a incrementa em qualquer alteração do usuário e {@link #revokeTokensOf(Long)} a incrementa sem alterar
+ * mais nada. O cache aqui só evita uma consulta por requisição; uma entrada ausente ou expirada é relida do banco,
+ * nunca tratada como versão 0.
+ */
+@Component
+public class TokenRevocationList {
+
+    // Usuário removido: nenhum token dele pode continuar valendo
+    private static final int REMOVED_USER = Integer.MAX_VALUE;
+
+    private final AsyncCache<Long, Integer> versions;
+
+    @Autowired
+    @Lazy
+    private UserRepository userRepository;
+
+    public TokenRevocationList(@Value("${api.security.token.version-cache.ttl:1m}") Duration ttl) {
+        this.versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public int currentVersion(Long userId) {
+        if (userId == null) return 0;
+        return CacheLoading.get(versions, userId, id -> userRepository.findTokenVersionById(id).orElse(REMOVED_USER));
+    }
+
+    @Transactional
+    public void revokeTokensOf(Long userId) {
+        if (userId == null) return;
+        userRepository.incrementTokenVersion(userId);
+        // Removida já e de novo depois do commit: uma leitura concorrente pode recarregar a versão antiga enquanto
+        // a transação não termina
+        versions.synchronous().invalidate(userId);
+        evictAfterCommit(userId);
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        return tokenVersion < currentVersion(userId);
+    }
+
+    /**
+     * Descarta a versão cacheada quando a transação atual confirmar; o Hibernate já terá incrementado a coluna.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (userId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versions.synchronous().invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.synchronous().invalidate(userId);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        versions.synchronous().invalidateAll();
+    }
+}
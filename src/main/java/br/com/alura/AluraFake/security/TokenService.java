@@ -2,28 +2,76 @@ package br.com.alura.AluraFake.security;
 
 import br.com.alura.AluraFake.infra.entity.User;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "alura-fake-api";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String VERSION_CLAIM = "ver";
+
+    // Algorithm e JWTVerifier são imutáveis e thread-safe, então são montados uma única vez
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Cache<ByteBuffer, DecodedJWT> verifiedTokens;
+    private final TokenRevocationList revocationList;
+    private final Timer validSignatures;
+    private final Timer invalidSignatures;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret,
+                        @Value("${api.security.token.verified-cache.maximum-size:10000}") long verifiedCacheSize,
+                        TokenRevocationList revocationList,
+                        MeterRegistry meterRegistry) {
+        this.revocationList = revocationList;
+        // Só a verificação da assinatura é medida: é a parte cara, que o cache de tokens verificados evita
+        this.validSignatures = signatureTimer(meterRegistry, "valid");
+        this.invalidSignatures = signatureTimer(meterRegistry, "invalid");
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.verifiedTokens = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(new TokenExpiry())
+                        .recordStats()
+                        .build()
+                : null;
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("alura-fake-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
+                    .withClaim(USER_ID_CLAIM, user.getId())
+                    .withClaim(ROLE_CLAIM, user.getRole().name())
+                    // Versão lida junto com o usuário autenticado, não do cache: uma entrada velha emitiria um token já revogado
+                    .withClaim(VERSION_CLAIM, user.getTokenVersion())
                     .withExpiresAt(generateExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -32,15 +80,81 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        return verify(token)
+                .map(DecodedJWT::getSubject)
+                .orElse("");
+    }
+
+    public Optional<DecodedJWT> verify(String token) {
+        // A revogação é checada depois do cache, já que ela pode acontecer com o token ainda cacheado
+        return verifyCached(token).filter(jwt -> !isRevoked(jwt));
+    }
+
+    private Optional<DecodedJWT> verifyCached(String token) {
+        if (verifiedTokens == null) return verifySignature(token);
+
+        // A chave é o hash do token: não guarda o token em si e mantém as chaves com tamanho fixo
+        ByteBuffer key = hash(token);
+        DecodedJWT cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) return Optional.of(cached);
+
+        Optional<DecodedJWT> verified = verifySignature(token);
+        verified.ifPresent(jwt -> verifiedTokens.put(key, jwt));
+        return verified;
+    }
+
+    private boolean isRevoked(DecodedJWT jwt) {
+        Long userId = jwt.getClaim(USER_ID_CLAIM).asLong();
+        Integer version = jwt.getClaim(VERSION_CLAIM).asInt();
+        return revocationList.isRevoked(userId, version == null ? 0 : version);
+    }
+
+    private Optional<DecodedJWT> verifySignature(String token) {
+        long start = System.nanoTime();
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("alura-fake-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            DecodedJWT jwt = verifier.verify(token);
+            validSignatures.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.of(jwt);
         } catch (JWTVerificationException exception) {
-            return "";
+            invalidSignatures.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Optional.empty();
+        }
+    }
+
+    private static Timer signatureTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("api.security.token.verification")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Cada token verificado fica no cache só até o seu próprio "exp"
+    private static class TokenExpiry implements Expiry<ByteBuffer, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, DecodedJWT jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAtAsInstant();
+            if (expiresAt == null) return 0;
+            return Math.max(0, Duration.between(Instant.now(), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, DecodedJWT jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    private static ByteBuffer hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 not available", exception);
         }
     }
 
@@ -48,4 +162,3 @@ public class TokenService {
         return LocalDateTime.now().plusHours(8).toInstant(ZoneOffset.of("-03:00"));
     }
 }
-
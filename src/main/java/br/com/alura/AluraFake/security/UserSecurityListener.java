@@ -0,0 +1,49 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+public class UserSecurityListener {
+
+    @Autowired
+    @Lazy
+    private PrincipalCache principalCache;
+
+    @Autowired
+    @Lazy
+    private TokenRevocationList tokenRevocationList;
+
+    // Qualquer alteração no usuário (role, senha...) já incrementou a versão de token na mesma transação. Os
+    // callbacks rodam no flush, então o principal cacheado e a versão cacheada só são descartados depois do commit:
+    // antes disso uma requisição concorrente recarregaria a linha antiga, e um rollback não deve derrubar nada
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        String previousEmail = user.getPersistedEmail();
+
+        Runnable evict = () -> {
+            principalCache.invalidate(email);
+            principalCache.invalidate(previousEmail);
+        };
+        tokenRevocationList.evictAfterCommit(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
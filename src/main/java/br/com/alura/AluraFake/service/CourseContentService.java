@@ -0,0 +1,147 @@
+package br.com.alura.AluraFake.service;
+
+import br.com.alura.AluraFake.infra.dto.course.CourseContentDTO;
+import br.com.alura.AluraFake.infra.dto.task.TaskContentDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.CourseContent;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.repository.CourseContentRepository;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.service.ordering.TaskOrdering;
+import br.com.alura.AluraFake.util.ApiException;
+import br.com.alura.AluraFake.util.CacheLoading;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.observation.annotation.Observed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Conteúdo dos cursos publicados (GET /course/{id}/content). Publicado, o curso não recebe mais atividades, então o
+ * JSON é gerado uma vez na publicação, gravado em {@code course_content} e servido a partir de um cache limitado
+ * pelo total de bytes ({@code api.course.content.cache-size}). A leitura nunca consulta a tabela de atividades:
+ * uma falta no cache lê uma única linha de {@code course_content}. Cursos publicados antes desta tabela existir
+ * têm o conteúdo gerado na primeira leitura.
+ */
+@Service
+@Observed(name = "api.service")
+public class CourseContentService {
+
+    private final AsyncCache<Long, Snapshot> snapshots;
+
+    @Autowired
+    private CourseContentRepository courseContentRepository;
+    @Autowired
+    @Lazy
+    private CourseRepository courseRepository;
+    @Autowired
+    @Lazy
+    private TaskOrdering taskOrdering;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public CourseContentService(@Value("${api.course.content.cache-size:64MB}") DataSize cacheSize) {
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .weigher((Long courseId, Snapshot snapshot) -> snapshot.body().length)
+                .buildAsync();
+    }
+
+    /**
+     * Gera e grava o conteúdo do curso que está sendo publicado na transação atual. Só entra no cache depois do
+     * commit, para uma publicação desfeita não deixar conteúdo servido.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createSnapshot(Course course) {
+        Snapshot snapshot = build(course);
+        courseContentRepository.save(new CourseContent(course.getId(), snapshot.etag(), snapshot.body()));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                snapshots.put(course.getId(), CompletableFuture.completedFuture(snapshot));
+            }
+        });
+    }
+
+    // Sem @Transactional: um acerto no cache não deve nem pegar conexão do pool
+    public Snapshot findSnapshot(Long courseId) {
+        Snapshot snapshot = CacheLoading.get(snapshots, courseId, this::load);
+        if (snapshot == null) {
+            throw new ApiException(
+                    HttpStatus.NOT_FOUND,
+                    FailureReason.COURSE_NOT_PUBLISHED,
+                    "Curso não encontrado ou ainda não publicado");
+        }
+        return snapshot;
+    }
+
+    // Devolver null não grava nada no cache, então um curso ainda em construção é consultado de novo na próxima vez
+    private Snapshot load(Long courseId) {
+        return findStored(courseId)
+                .orElseGet(() -> courseRepository.findById(courseId)
+                        .filter(course -> course.getStatus() == Status.PUBLISHED)
+                        .flatMap(course -> {
+                            // Outra instância pode estar gerando o mesmo conteúdo: vale a linha que ficou gravada
+                            Snapshot snapshot = build(course);
+                            courseContentRepository.insertIfAbsent(courseId, snapshot.etag(), snapshot.body());
+                            return findStored(courseId);
+                        })
+                        .orElse(null));
+    }
+
+    private Optional<Snapshot> findStored(Long courseId) {
+        return courseContentRepository.findById(courseId)
+                .map(content -> new Snapshot(content.getBody(), content.getEtag()));
+    }
+
+    private Snapshot build(Course course) {
+        List<Task> tasks = taskOrdering.findOrdered(course.getId());
+        List<TaskContentDTO> contents = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            contents.add(new TaskContentDTO(i + 1, task.getStatement(), task.getType(),
+                    task.getOptions().stream().map(TaskOption::text).toList()));
+        }
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(new CourseContentDTO(course.getId(), course.getTitle(),
+                    course.getDescription(), course.getPublishedAt(), contents));
+            return new Snapshot(body, etagOf(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o conteúdo do curso " + course.getId(), e);
+        }
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record Snapshot(byte[] body, String etag) {
+    }
+}
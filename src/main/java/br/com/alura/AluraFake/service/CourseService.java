@@ -1,15 +1,20 @@
 package br.com.alura.AluraFake.service;
 
 import br.com.alura.AluraFake.infra.entity.Course;
-import br.com.alura.AluraFake.infra.entity.Task;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
 import br.com.alura.AluraFake.infra.enumerated.Status;
 import br.com.alura.AluraFake.infra.dto.course.InstructorCourseDTO;
 import br.com.alura.AluraFake.infra.dto.course.InstructorCoursesReportDTO;
-import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO;
 import br.com.alura.AluraFake.infra.enumerated.Type;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.ordering.TaskOrdering;
+import br.com.alura.AluraFake.util.ApiException;
+import br.com.alura.AluraFake.util.ContentVersions;
+import br.com.alura.AluraFake.util.TraceAttributes;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpStatus;
@@ -18,11 +23,15 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "api.service")
 public class CourseService {
 
     @Autowired
@@ -30,54 +39,92 @@ public class CourseService {
     private CourseRepository courseRepository;
     @Autowired
     @Lazy
-    private TaskRepository taskRepository;
+    private UserRepository userRepository;
     @Autowired
     @Lazy
-    private UserRepository userRepository;
+    private TaskOrdering taskOrdering;
+    @Autowired
+    private CourseContentService courseContentService;
+    @Autowired
+    private ContentVersions contentVersions;
+    @Autowired
+    private TraceAttributes traceAttributes;
 
     @Transactional
     public void publishCourse(Long courseId) {
         Course course = findCourseOrThrow(courseId);
-        List<Task> tasks = taskRepository.findByCourseIdOrderByOrderNumberAsc(courseId);
+        traceAttributes.put("course.id", courseId);
+        traceAttributes.put("task.count", course.getTaskCount());
 
-        validateCourseCanBePublished(course, tasks);
+        validateCourseCanBePublished(course);
         updateCourseToPublished(course);
     }
 
+    /**
+     * Publica os cursos informados em uma única transação. Um curso inválido não impede os demais: o retorno traz,
+     * por id, a mesma mensagem que {@link #publishCourse(Long)} devolveria para ele.
+     */
+    @Transactional
+    public Map<Long, String> publishCourses(Collection<Long> courseIds) {
+        traceAttributes.put("course.count", courseIds.size());
+        Map<Long, Course> courses = courseRepository.findAllByIdForUpdate(courseIds).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+
+        Map<Long, String> errors = new HashMap<>();
+        for (Long courseId : courseIds) {
+            Course course = courses.get(courseId);
+            if (course == null) {
+                errors.put(courseId, "Curso não encontrado");
+                continue;
+            }
+            // Validação chamada direto (sem passar pelo proxy), então a exceção não marca a transação para rollback
+            try {
+                validateCourseCanBePublished(course);
+                updateCourseToPublished(course);
+            } catch (ResponseStatusException e) {
+                errors.put(courseId, e.getReason());
+            }
+        }
+        return errors;
+    }
+
+    // Mesmo lock de quem escreve atividades: uma inserção concorrente termina antes da validação e do conteúdo
+    // gerado na publicação, ou espera a publicação e encontra o curso já publicado
     private Course findCourseOrThrow(Long courseId) {
-        return courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(
+        return courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ApiException(
                         HttpStatus.NOT_FOUND,
+                        FailureReason.COURSE_NOT_FOUND,
                         "Curso não encontrado"));
     }
 
-    private void validateCourseCanBePublished(Course course, List<Task> tasks) {
+    private void validateCourseCanBePublished(Course course) {
         ensureCourseIsInBuildingStatus(course);
-        ensureCourseHasTasks(tasks);
-        ensureAllRequiredTaskTypesExist(tasks);
-        ensureTasksAreInSequentialOrder(tasks);
+        ensureCourseHasTasks(course);
+        ensureAllRequiredTaskTypesExist(course);
+        // Tipos vêm dos contadores do curso; a sequência, de um único agregado sobre as atividades
+        ensureTasksAreInSequentialOrder(taskOrdering.summarizeOrders(course.getId()));
     }
 
     private void ensureCourseIsInBuildingStatus(Course course) {
         if (course.getStatus() != Status.BUILDING) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_NOT_BUILDING,
                     "O curso só pode ser publicado se o status for BUILDING");
         }
     }
 
-    private void ensureCourseHasTasks(List<Task> tasks) {
-        if (tasks.isEmpty()) {
-            throw new ResponseStatusException(
+    private void ensureCourseHasTasks(Course course) {
+        if (course.getTaskCount() == 0) {
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_WITHOUT_TASKS,
                     "O curso deve conter ao menos uma atividade para ser publicado");
         }
     }
 
-    private void ensureAllRequiredTaskTypesExist(List<Task> tasks) {
-        Map<Type, Long> tasksByType = tasks.stream()
-                .collect(Collectors.groupingBy(Task::getType, Collectors.counting()));
-
+    private void ensureAllRequiredTaskTypesExist(Course course) {
         Map<Type, String> requiredTypes = Map.of(
                 Type.OPEN_TEXT, "resposta aberta (OPEN_TEXT)",
                 Type.SINGLE_CHOICE, "alternativa única (SINGLE_CHOICE)",
@@ -85,25 +132,37 @@ public class CourseService {
         );
 
         requiredTypes.forEach((type, description) -> {
-            if (!tasksByType.containsKey(type)) {
-                throw new ResponseStatusException(
+            if (!course.hasTaskOfType(type)) {
+                throw new ApiException(
                         HttpStatus.BAD_REQUEST,
+                        FailureReason.COURSE_MISSING_TASK_TYPE,
                         "O curso deve conter ao menos uma atividade de " + description);
             }
         });
     }
 
-    private void ensureTasksAreInSequentialOrder(List<Task> tasks) {
-        for (int i = 0; i < tasks.size(); i++) {
-            int expectedOrder = i + 1;
-            int actualOrder = tasks.get(i).getOrderNumber();
+    private void ensureTasksAreInSequentialOrder(TaskOrderSummaryDTO orders) {
+        if (orders.minOrder() == null || orders.minOrder() != 1) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_ORDER_NOT_STARTING_AT_ONE,
+                    String.format("As atividades devem ter ordem em sequência contínua. " +
+                            "Esperado ordem 1, mas encontrado ordem %s", orders.minOrder()));
+        }
 
-            if (actualOrder != expectedOrder) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        String.format("As atividades devem ter ordem em sequência contínua. " +
-                                "Esperado ordem %d, mas encontrado ordem %d", expectedOrder, actualOrder));
-            }
+        if (orders.distinctOrders() != orders.total()) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_ORDER_REPEATED,
+                    "As atividades devem ter ordem em sequência contínua. Há atividades com a mesma ordem");
+        }
+
+        if (orders.maxOrder() != orders.total()) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_ORDER_GAP,
+                    String.format("As atividades devem ter ordem em sequência contínua. " +
+                            "Esperado ordem máxima %d, mas encontrado ordem %d", orders.total(), orders.maxOrder()));
         }
     }
 
@@ -111,21 +170,23 @@ public class CourseService {
         course.setStatus(Status.PUBLISHED);
         course.setPublishedAt(LocalDateTime.now());
         courseRepository.save(course);
+        courseContentService.createSnapshot(course);
+        contentVersions.courseChanged(course.getInstructor().getId());
     }
 
     public InstructorCoursesReportDTO generateInstructorReport(Long instructorId) {
-        User instructor = findInstructorOrThrow(instructorId);
-        List<Course> courses = courseRepository.findByInstructorId(instructorId);
-        List<InstructorCourseDTO> courseDTOs = buildCourseDTOs(courses);
-        long totalPublished = countPublishedCourses(instructorId);
+        findInstructorOrThrow(instructorId);
+        List<InstructorCourseDTO> courseDTOs = courseRepository.findInstructorReport(instructorId);
+        long totalPublished = countPublishedCourses(courseDTOs);
 
         return new InstructorCoursesReportDTO(courseDTOs, totalPublished);
     }
 
     private User findInstructorOrThrow(Long instructorId) {
         User user = userRepository.findById(instructorId)
-                .orElseThrow(() -> new ResponseStatusException(
+                .orElseThrow(() -> new ApiException(
                         HttpStatus.NOT_FOUND,
+                        FailureReason.USER_NOT_FOUND,
                         "Usuário não encontrado"));
 
         ensureUserIsInstructor(user);
@@ -134,25 +195,17 @@ public class CourseService {
 
     private void ensureUserIsInstructor(User user) {
         if (!user.isInstructor()) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.USER_NOT_INSTRUCTOR,
                     "Usuário não é um instrutor");
         }
     }
 
-    private List<InstructorCourseDTO> buildCourseDTOs(List<Course> courses) {
+    private long countPublishedCourses(List<InstructorCourseDTO> courses) {
         return courses.stream()
-                .map(this::buildCourseDTO)
-                .collect(Collectors.toList());
-    }
-
-    private InstructorCourseDTO buildCourseDTO(Course course) {
-        long taskCount = taskRepository.countByCourseId(course.getId());
-        return new InstructorCourseDTO(course, taskCount);
-    }
-
-    private long countPublishedCourses(Long instructorId) {
-        return courseRepository.countByInstructorIdAndStatus(instructorId, Status.PUBLISHED);
+                .filter(course -> course.getStatus() == Status.PUBLISHED)
+                .count();
     }
 }
 
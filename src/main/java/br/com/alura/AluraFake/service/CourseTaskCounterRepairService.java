@@ -0,0 +1,35 @@
+package br.com.alura.AluraFake.service;
+
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Reconstrói os contadores de atividades do curso a partir da tabela de atividades, para corrigir divergências
+ * causadas por alterações feitas fora da aplicação. Roda sob demanda ou pelo cron em
+ * {@code api.course.task-counters.repair-cron} (desligado por padrão).
+ */
+@Service
+public class CourseTaskCounterRepairService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ContentVersions contentVersions;
+
+    @Transactional
+    @Scheduled(cron = "${api.course.task-counters.repair-cron:-}")
+    public void rebuildAll() {
+        courseRepository.rebuildTaskCounters(null);
+        contentVersions.allInstructorsChanged();
+    }
+
+    @Transactional
+    public void rebuild(Long courseId) {
+        courseRepository.rebuildTaskCounters(courseId);
+        contentVersions.allInstructorsChanged();
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.alura.AluraFake.service;
+
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exportação em NDJSON (um objeto JSON por linha) lendo direto de um cursor do banco: cada linha é escrita
+ * assim que é lida, então a memória fica constante independente do tamanho da tabela.
+ */
+@Service
+public class ExportService {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${api.export.flush-every:500}")
+    private int flushEvery;
+
+    @Value("${api.export.request-timeout:30m}")
+    private Duration requestTimeout;
+
+    /**
+     * Prazo próprio da exportação: o streaming de tabelas grandes passa dos 30s padrão do container, mas as demais
+     * requisições assíncronas continuam com o padrão do Spring MVC. Precisa ser chamado pelo controller antes de
+     * devolver o {@code StreamingResponseBody}, que é quando o processamento assíncrono começa.
+     */
+    public void applyRequestTimeout(WebRequest request) {
+        AsyncWebRequest asyncRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+        if (asyncRequest != null) asyncRequest.setTimeout(requestTimeout.toMillis());
+    }
+
+    @Transactional(readOnly = true)
+    public void writeUsers(OutputStream out) throws IOException {
+        try (Stream<?> users = userRepository.streamAllForExport()) {
+            writeLines(users, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCourses(OutputStream out) throws IOException {
+        try (Stream<?> courses = courseRepository.streamAllForExport()) {
+            writeLines(courses, out);
+        }
+    }
+
+    private void writeLines(Stream<?> rows, OutputStream out) throws IOException {
+        // Sem FLUSH_AFTER_WRITE_VALUE: quem decide quando descarregar é o laço abaixo, não cada linha
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // O separador entre valores de raiz é a quebra de linha escrita abaixo, não o espaço padrão do Jackson
+            generator.setRootValueSeparator(null);
+
+            // Zero ou negativo descarrega a cada linha, em vez de dividir por zero no meio da exportação
+            int batch = Math.max(1, flushEvery);
+            long written = 0;
+            Iterator<?> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                // Descarrega a primeira linha na hora e depois a cada lote, para o cliente começar a receber cedo
+                if (++written == 1 || written % batch == 0) generator.flush();
+            }
+            generator.flush();
+        }
+    }
+}
@@ -2,121 +2,241 @@ package br.com.alura.AluraFake.service;
 
 import br.com.alura.AluraFake.infra.entity.Course;
 import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
 import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.dto.task.BatchTaskItemDTO;
+import br.com.alura.AluraFake.infra.dto.task.BatchTaskRequestDTO;
 import br.com.alura.AluraFake.infra.dto.task.OptionDTO;
 import br.com.alura.AluraFake.infra.dto.task.SingleChoiceTaskRequestDTO;
 import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
 import br.com.alura.AluraFake.infra.repository.TaskRepository;
 import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.service.ordering.TaskOrdering;
+import br.com.alura.AluraFake.util.ApiException;
+import br.com.alura.AluraFake.util.ContentVersions;
+import br.com.alura.AluraFake.util.TraceAttributes;
+import io.micrometer.observation.annotation.Observed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.server.ResponseStatusException;
 
+import java.text.Normalizer;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 @Service
+@Observed(name = "api.service")
 public class TaskService {
 
     @Autowired
     private CourseRepository courseRepository;
     @Autowired
     private TaskRepository taskRepository;
+    @Autowired
+    private TaskOrdering taskOrdering;
+    @Autowired
+    private TraceAttributes traceAttributes;
+    @Autowired
+    private ContentVersions contentVersions;
 
     @Transactional
     public void createOpenTextTask(TaskRequestDTO dto) {
+        traceTask(dto.getCourseId(), dto.getOrder());
         Course course = validateAndGetCourse(dto.getCourseId(), dto.getStatement());
-        validateAndHandleOrderSequence(dto.getCourseId(), dto.getOrder());
+        course = validateAndHandleOrderSequence(course, dto.getOrder());
 
-        Task task = new Task(dto.getStatement(), dto.getOrder(), Type.OPEN_TEXT, course);
-        taskRepository.save(task);
+        saveInOrder(new Task(dto.getStatement(), dto.getOrder(), Type.OPEN_TEXT, course));
     }
 
     @Transactional
     public void createSingleChoiceTask(SingleChoiceTaskRequestDTO dto) {
+        traceTask(dto.getCourseId(), dto.getOrder());
         Course course = validateAndGetCourse(dto.getCourseId(), dto.getStatement());
         validateSingleChoiceOptions(dto.getOptions(), dto.getStatement());
-        validateAndHandleOrderSequence(dto.getCourseId(), dto.getOrder());
+        course = validateAndHandleOrderSequence(course, dto.getOrder());
 
-        Task task = new Task(dto.getStatement(), dto.getOrder(), Type.SINGLE_CHOICE, course);
-        taskRepository.save(task);
+        saveInOrder(new Task(dto.getStatement(), dto.getOrder(), Type.SINGLE_CHOICE, course, toTaskOptions(dto.getOptions())));
     }
 
     @Transactional
     public void createMultipleChoiceTask(SingleChoiceTaskRequestDTO dto) {
+        traceTask(dto.getCourseId(), dto.getOrder());
         Course course = validateAndGetCourse(dto.getCourseId(), dto.getStatement());
         validateMultipleChoiceOptions(dto.getOptions(), dto.getStatement());
-        validateAndHandleOrderSequence(dto.getCourseId(), dto.getOrder());
+        course = validateAndHandleOrderSequence(course, dto.getOrder());
 
-        Task task = new Task(dto.getStatement(), dto.getOrder(), Type.MULTIPLE_CHOICE, course);
-        taskRepository.save(task);
+        saveInOrder(new Task(dto.getStatement(), dto.getOrder(), Type.MULTIPLE_CHOICE, course, toTaskOptions(dto.getOptions())));
     }
 
-    private Course validateAndGetCourse(Long courseId, String statement) {
-        // Verifica se o curso existe
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Curso não encontrado"));
+    @Transactional
+    public void createTasksInBatch(Long courseId, BatchTaskRequestDTO dto) {
+        Course course = findCourseForWriting(courseId);
+        List<BatchTaskItemDTO> items = dto.getTasks();
+        traceAttributes.put("course.id", courseId);
+        traceAttributes.put("task.count", items.size());
+
+        validateBatchStatements(courseId, items);
+
+        // Mesmas regras das chamadas individuais, aplicadas em memória como se cada atividade fosse criada em sequência
+        int maxOrder = course.getMaxTaskOrder();
+        for (int i = 0; i < items.size(); i++) {
+            BatchTaskItemDTO item = items.get(i);
+            try {
+                validateOptionsOf(item);
+                validateOrder(maxOrder, item.getOrder());
+            } catch (ApiException e) {
+                throw new ApiException(e.getStatusCode(), e.getFailureReason(), "Atividade " + (i + 1) + " do lote: " + e.getReason());
+            }
+            maxOrder++;
+        }
 
-        // Verifica se o curso está em BUILDING
-        if (course.getStatus() != Status.BUILDING) {
-            throw new ResponseStatusException(
+        List<Integer> requestedOrders = items.stream().map(BatchTaskItemDTO::getOrder).toList();
+        try {
+            taskOrdering.insertAll(course, requestedOrders, (target, i) -> {
+                BatchTaskItemDTO item = items.get(i);
+                List<TaskOption> options = item.getType() == Type.OPEN_TEXT ? null : toTaskOptions(item.getOptions());
+                return new Task(item.getStatement(), item.getOrder(), item.getType(), target, options);
+            });
+            taskRepository.flush();
+            contentVersions.tasksChanged(course.getInstructor().getId());
+        } catch (DataIntegrityViolationException e) {
+            // A collation ainda iguala textos que a normalização não cobre (ex.: "ß" e "ss")
+            if (!String.valueOf(e.getMessage()).contains("uk_task_course_statement")) throw e;
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
-                    "Um curso só pode receber atividades se seu status for BUILDING");
+                    FailureReason.DUPLICATE_STATEMENT,
+                    "O lote não pode ter duas questões com o mesmo enunciado");
+        }
+    }
+
+    // Mesmo texto que a validação considerou, sem os espaços das pontas
+    private List<TaskOption> toTaskOptions(List<OptionDTO> options) {
+        return options.stream().map(option -> new TaskOption(option.getText().trim(), option.isCorrect())).toList();
+    }
+
+    private void traceTask(Long courseId, Integer order) {
+        traceAttributes.put("course.id", courseId);
+        traceAttributes.put("task.order", order);
+    }
+
+    private void validateBatchStatements(Long courseId, List<BatchTaskItemDTO> items) {
+        // Comparação sem caixa, acentos e espaços finais, como a collation da restrição única no banco
+        Set<String> statements = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            if (!statements.add(normalizeStatement(items.get(i).getStatement()))) {
+                throw new ApiException(
+                        HttpStatus.BAD_REQUEST,
+                        FailureReason.DUPLICATE_STATEMENT,
+                        "Atividade " + (i + 1) + " do lote: o lote não pode ter duas questões com o mesmo enunciado");
+            }
         }
 
+        List<String> existing = taskRepository.findStatementsIn(courseId,
+                items.stream().map(BatchTaskItemDTO::getStatement).toList());
+        if (!existing.isEmpty()) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    FailureReason.DUPLICATE_STATEMENT,
+                    "O curso não pode ter duas questões com o mesmo enunciado: " + existing.get(0));
+        }
+    }
+
+    private String normalizeStatement(String statement) {
+        String withoutAccents = Normalizer.normalize(statement, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return withoutAccents.stripTrailing().toLowerCase(Locale.ROOT);
+    }
+
+    private void validateOptionsOf(BatchTaskItemDTO item) {
+        switch (item.getType()) {
+            case SINGLE_CHOICE -> validateSingleChoiceOptions(item.getOptions(), item.getStatement());
+            case MULTIPLE_CHOICE -> validateMultipleChoiceOptions(item.getOptions(), item.getStatement());
+            case OPEN_TEXT -> { }
+        }
+    }
+
+    private Course validateAndGetCourse(Long courseId, String statement) {
+        Course course = findCourseForWriting(courseId);
+
         // Verifica se já existe uma questão com o mesmo enunciado no curso
         if (taskRepository.existsByCourseIdAndStatement(courseId, statement)) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.DUPLICATE_STATEMENT,
                     "O curso não pode ter duas questões com o mesmo enunciado");
         }
 
         return course;
     }
 
-    private void validateSingleChoiceOptions(List<OptionDTO> options, String statement) {
+    private Course findCourseForWriting(Long courseId) {
+        // Verifica se o curso existe, travando-o até o fim da transação para que as validações
+        // e a escolha da ordem não concorram com outra inserção no mesmo curso
+        Course course = courseRepository.findByIdForUpdate(courseId)
+                .orElseThrow(() -> new ApiException(
+                        HttpStatus.NOT_FOUND,
+                        FailureReason.COURSE_NOT_FOUND,
+                        "Curso não encontrado"));
+
+        // Verifica se o curso está em BUILDING
+        if (course.getStatus() != Status.BUILDING) {
+            throw new ApiException(
+                    HttpStatus.BAD_REQUEST,
+                    FailureReason.COURSE_NOT_BUILDING,
+                    "Um curso só pode receber atividades se seu status for BUILDING");
+        }
+
+        return course;
+    }
+
+    // Visibilidade de pacote para o benchmark em src/jmh (TaskOptionsValidationBenchmark)
+    void validateSingleChoiceOptions(List<OptionDTO> options, String statement) {
         int correctCount = validateCommonOptionsRules(options, statement, 2, 5);
 
         if (correctCount != 1) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.SINGLE_CHOICE_CORRECT_COUNT,
                     "A atividade deve ter uma única alternativa correta");
         }
     }
 
-    private void validateMultipleChoiceOptions(List<OptionDTO> options, String statement) {
+    void validateMultipleChoiceOptions(List<OptionDTO> options, String statement) {
         int correctCount = validateCommonOptionsRules(options, statement, 2, 5);
 
         if (correctCount < 2) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.MULTIPLE_CHOICE_TOO_FEW_CORRECT,
                     "A atividade de múltipla escolha deve ter pelo menos 2 alternativas corretas");
         }
 
         if (correctCount == options.size()) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.MULTIPLE_CHOICE_WITHOUT_INCORRECT,
                     "A atividade de múltipla escolha deve ter pelo menos 1 alternativa incorreta");
         }
     }
 
-    private int validateCommonOptionsRules(List<OptionDTO> options, String statement,
-                                          int minAlternatives, int maxAlternatives) {
+    int validateCommonOptionsRules(List<OptionDTO> options, String statement,
+                                  int minAlternatives, int maxAlternatives) {
         if (options == null || options.isEmpty()) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.OPTIONS_MISSING,
                     "As alternativas são obrigatórias");
         }
 
         if (options.size() < minAlternatives || options.size() > maxAlternatives) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.OPTIONS_COUNT,
                     "A atividade deve ter no mínimo " + minAlternatives + " e no máximo " + maxAlternatives + " alternativas");
         }
 
@@ -127,20 +247,31 @@ public class TaskService {
             String optionText = option.getText().trim();
 
             if (optionText.length() < 4 || optionText.length() > 80) {
-                throw new ResponseStatusException(
+                throw new ApiException(
                         HttpStatus.BAD_REQUEST,
+                        FailureReason.OPTION_LENGTH,
                         "As alternativas devem ter no mínimo 4 e no máximo 80 caracteres");
             }
 
+            // O separador das alternativas empacotadas (TaskOption.SEPARATOR) é um caractere de controle
+            if (optionText.chars().anyMatch(Character::isISOControl)) {
+                throw new ApiException(
+                        HttpStatus.BAD_REQUEST,
+                        FailureReason.OPTION_CONTROL_CHARACTERS,
+                        "As alternativas não podem conter caracteres de controle");
+            }
+
             if (optionText.equalsIgnoreCase(statement.trim())) {
-                throw new ResponseStatusException(
+                throw new ApiException(
                         HttpStatus.BAD_REQUEST,
+                        FailureReason.OPTION_EQUALS_STATEMENT,
                         "As alternativas não podem ser iguais ao enunciado da atividade");
             }
 
             if (!uniqueOptions.add(optionText.toLowerCase())) {
-                throw new ResponseStatusException(
+                throw new ApiException(
                         HttpStatus.BAD_REQUEST,
+                        FailureReason.OPTIONS_REPEATED,
                         "As alternativas não podem ser iguais entre si");
             }
 
@@ -152,39 +283,35 @@ public class TaskService {
         return correctCount;
     }
 
-    private void validateAndHandleOrderSequence(Long courseId, Integer newOrder) {
-        Integer maxOrder = taskRepository.findMaxOrderByCourseId(courseId);
+    private Course validateAndHandleOrderSequence(Course course, Integer newOrder) {
+        validateOrder(course.getMaxTaskOrder(), newOrder);
+        return taskOrdering.makeRoom(course, newOrder);
+    }
 
-        if (maxOrder == null) {
+    private void validateOrder(int maxOrder, Integer newOrder) {
+        if (maxOrder == 0) {
             if (newOrder != 1) {
-                throw new ResponseStatusException(
+                throw new ApiException(
                         HttpStatus.BAD_REQUEST,
+                        FailureReason.TASK_ORDER_NOT_STARTING_AT_ONE,
                         "A primeira atividade deve ter ordem 1");
             }
             return;
         }
 
         if (newOrder > maxOrder + 1) {
-            throw new ResponseStatusException(
+            throw new ApiException(
                     HttpStatus.BAD_REQUEST,
+                    FailureReason.TASK_ORDER_GAP,
                     String.format("A ordem das atividades deve ser contínua, sem saltos. " +
                             "A maior ordem atual é %d. Você pode adicionar uma atividade com ordem entre 1 e %d.",
                             maxOrder, maxOrder + 1));
         }
-
-        if (taskRepository.existsByCourseIdAndOrderNumber(courseId, newOrder)) {
-            shiftTasksOrder(courseId, newOrder);
-        }
     }
 
-    private void shiftTasksOrder(Long courseId, Integer fromOrder) {
-        List<Task> tasksToShift = taskRepository.findByCourseIdAndOrderNumberGreaterThanEqual(courseId, fromOrder);
-
-        for (int i = tasksToShift.size() - 1; i >= 0; i--) {
-            Task task = tasksToShift.get(i);
-            task.setOrderNumber(task.getOrderNumber() + 1);
-            taskRepository.save(task);
-        }
+    private void saveInOrder(Task task) {
+        taskOrdering.place(task, task.getOrderNumber());
+        taskRepository.save(task);
+        contentVersions.tasksChanged(task.getCourse().getInstructor().getId());
     }
 }
-
@@ -0,0 +1,123 @@
+package br.com.alura.AluraFake.service.ordering;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.util.TraceAttributes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Grava a ordem densa diretamente em {@code order_number}; inserir no meio desloca as atividades seguintes.
+ */
+@Component
+@ConditionalOnProperty(name = "api.task.ordering", havingValue = "dense", matchIfMissing = true)
+public class DenseTaskOrdering implements TaskOrdering {
+
+    @Autowired
+    private CourseRepository courseRepository;
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TraceAttributes traceAttributes;
+
+    @Override
+    public Course makeRoom(Course course, int order) {
+        if (order > course.getMaxTaskOrder()) {
+            traceAttributes.put("task.order_shift", 0);
+            return course;
+        }
+
+        traceAttributes.put("task.order_shift", course.getMaxTaskOrder() - order + 1);
+        taskRepository.shiftOrdersFrom(course.getId(), order);
+
+        // O deslocamento em lote limpa o contexto de persistência, então o curso é recarregado
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        reloaded.registerTasksShifted();
+        return reloaded;
+    }
+
+    @Override
+    public void place(Task task, int order) {
+        task.setOrderNumber(order);
+    }
+
+    @Override
+    public void insertAll(Course course, List<Integer> requestedOrders, BiFunction<Course, Integer, Task> factory) {
+        BatchPlan plan = BatchPlan.of(course.getMaxTaskOrder(), requestedOrders);
+
+        // Atividades existentes deslocadas: da primeira posição afetada até o fim do curso
+        traceAttributes.put("task.order_shift", plan.shifts().isEmpty() ? 0 : course.getMaxTaskOrder() - plan.shifts().get(0).fromOrder() + 1);
+
+        Course target = course;
+        if (!plan.shifts().isEmpty()) {
+            plan.shifts().forEach(shift -> taskRepository.shiftOrdersFrom(course.getId(), shift.fromOrder(), shift.delta()));
+            target = courseRepository.findById(course.getId()).orElseThrow();
+            target.registerTasksShifted(plan.totalShift());
+        }
+
+        List<Task> tasks = new ArrayList<>(requestedOrders.size());
+        for (int i = 0; i < requestedOrders.size(); i++) {
+            Task task = factory.apply(target, i);
+            task.setOrderNumber(plan.finalOrders().get(i));
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+    }
+
+    @Override
+    public TaskOrderSummaryDTO summarizeOrders(Long courseId) {
+        return taskRepository.summarizeOrders(courseId);
+    }
+
+    @Override
+    public List<Task> findOrdered(Long courseId) {
+        return taskRepository.findByCourseIdOrderByOrderNumberAsc(courseId);
+    }
+
+    record Shift(int fromOrder, int delta) {}
+
+    /**
+     * Resultado de aplicar em memória as inserções do lote sobre as atividades existentes (ordens 1..n): a ordem
+     * final de cada atividade nova e os deslocamentos em lote que levam as existentes às suas novas posições, a
+     * serem aplicados em sequência.
+     */
+    record BatchPlan(List<Integer> finalOrders, List<Shift> shifts, int totalShift) {
+
+        static BatchPlan of(int existingCount, List<Integer> requestedOrders) {
+            // Existentes aparecem pela ordem original (positiva); novas, por -(índice + 1)
+            List<Integer> slots = new ArrayList<>(existingCount + requestedOrders.size());
+            for (int order = 1; order <= existingCount; order++) {
+                slots.add(order);
+            }
+            for (int i = 0; i < requestedOrders.size(); i++) {
+                slots.add(requestedOrders.get(i) - 1, -(i + 1));
+            }
+
+            Integer[] finalOrders = new Integer[requestedOrders.size()];
+            List<Shift> shifts = new ArrayList<>();
+            int appliedDelta = 0;
+            for (int position = 1; position <= slots.size(); position++) {
+                int slot = slots.get(position - 1);
+                if (slot < 0) {
+                    finalOrders[-slot - 1] = position;
+                    continue;
+                }
+                // O deslocamento das existentes só cresce ao longo do curso; cada aumento vira um UPDATE em lote
+                int delta = position - slot;
+                if (delta > appliedDelta) {
+                    shifts.add(new Shift(slot + appliedDelta, delta - appliedDelta));
+                    appliedDelta = delta;
+                }
+            }
+            return new BatchPlan(List.of(finalOrders), shifts, appliedDelta);
+        }
+    }
+}
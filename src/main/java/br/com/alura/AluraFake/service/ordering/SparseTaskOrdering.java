@@ -0,0 +1,109 @@
+package br.com.alura.AluraFake.service.ordering;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.util.TraceAttributes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Guarda a posição como uma chave esparsa em {@code rank_key} e deixa {@code order_number} vazio: a nova atividade
+ * recebe uma chave entre as das vizinhas, então inserir no meio grava só a linha nova. A ordem densa é derivada na
+ * leitura, ordenando pela chave. Quando o intervalo entre vizinhas fica estreito o curso é reespaçado em segundo
+ * plano; se acabar de vez, no próprio insert.
+ *
+ * <p>Cursos criados no modo denso são convertidos na primeira inserção. O caminho inverso não é automático.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "api.task.ordering", havingValue = "sparse")
+public class SparseTaskOrdering implements TaskOrdering {
+
+    static final long GAP = 1L << 16;
+    private static final long REBALANCE_BELOW_GAP = 64;
+
+    @Autowired
+    private TaskRepository taskRepository;
+    @Autowired
+    private TaskRankRebalancer rebalancer;
+    @Autowired
+    private TraceAttributes traceAttributes;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Course makeRoom(Course course, int order) {
+        // Nada a deslocar: a posição é aberta pela chave escolhida em place()
+        traceAttributes.put("task.order_shift", 0);
+        return course;
+    }
+
+    @Override
+    public void place(Task task, int order) {
+        Long courseId = task.getCourse().getId();
+        if (taskRepository.existsByCourseIdAndRankKeyIsNull(courseId)) {
+            rebalancer.rebalance(courseId);
+        }
+
+        Long rankKey = rankKeyFor(courseId, order);
+        if (rankKey == null) {
+            traceAttributes.put("task.rank_rebalanced", true);
+            rebalancer.rebalance(courseId);
+            rankKey = rankKeyFor(courseId, order);
+        }
+
+        task.setRankKey(rankKey);
+        task.setOrderNumber(null);
+    }
+
+    @Override
+    public void insertAll(Course course, List<Integer> requestedOrders, BiFunction<Course, Integer, Task> factory) {
+        // Cada chave depende das vizinhas já gravadas, inclusive as do próprio lote, então a inserção é uma a uma
+        for (int i = 0; i < requestedOrders.size(); i++) {
+            Task task = factory.apply(course, i);
+            place(task, requestedOrders.get(i));
+            taskRepository.save(task);
+        }
+    }
+
+    @Override
+    public TaskOrderSummaryDTO summarizeOrders(Long courseId) {
+        // A ordem é derivada da posição pela chave, então é sempre contínua
+        return TaskOrderSummaryDTO.continuous(taskRepository.countByCourseId(courseId));
+    }
+
+    @Override
+    public List<Task> findOrdered(Long courseId) {
+        return taskRepository.findByCourseIdOrderByRankKeyAsc(courseId);
+    }
+
+    // Chave entre as atividades das posições order - 1 e order, ou null se não houver espaço entre elas
+    private Long rankKeyFor(Long courseId, int order) {
+        List<Long> neighbors = entityManager
+                .createQuery("SELECT t.rankKey FROM Task t WHERE t.course.id = :courseId ORDER BY t.rankKey", Long.class)
+                .setParameter("courseId", courseId)
+                .setFirstResult(Math.max(order - 2, 0))
+                .setMaxResults(order == 1 ? 1 : 2)
+                .getResultList();
+
+        Long previous = order == 1 || neighbors.isEmpty() ? null : neighbors.get(0);
+        Long next = order == 1 ? (neighbors.isEmpty() ? null : neighbors.get(0))
+                : (neighbors.size() > 1 ? neighbors.get(1) : null);
+
+        if (previous == null && next == null) return GAP;
+        if (previous == null) return next - GAP;
+        if (next == null) return previous + GAP;
+
+        long gap = next - previous;
+        if (gap < 2) return null;
+        if (gap < REBALANCE_BELOW_GAP) rebalancer.rebalanceAfterCommit(courseId);
+        return previous + gap / 2;
+    }
+}
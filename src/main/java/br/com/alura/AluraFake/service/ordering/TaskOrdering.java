@@ -0,0 +1,45 @@
+package br.com.alura.AluraFake.service.ordering;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskOrderSummaryDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Forma como a posição das atividades de um curso é gravada. As regras de negócio continuam falando em ordens
+ * densas (1, 2, 3...); cada implementação decide como representá-las no banco. Escolhida por
+ * {@code api.task.ordering}: {@code dense} (padrão) ou {@code sparse}.
+ */
+public interface TaskOrdering {
+
+    /**
+     * Abre a posição {@code order} no curso para uma nova atividade. Devolve o curso que deve ser usado a seguir,
+     * que pode ter sido recarregado.
+     */
+    Course makeRoom(Course course, int order);
+
+    /**
+     * Grava na atividade ainda não persistida a representação da posição {@code order}.
+     */
+    void place(Task task, int order);
+
+    /**
+     * Agregado das ordens das atividades do curso, como vistas pelas regras de negócio.
+     */
+    TaskOrderSummaryDTO summarizeOrders(Long courseId);
+
+    /**
+     * Atividades do curso na ordem em que as regras de negócio as enxergam.
+     */
+    List<Task> findOrdered(Long courseId);
+
+    /**
+     * Insere um lote de atividades como se cada uma fosse criada individualmente, na sequência da lista: a ordem
+     * pedida por cada uma vale para o estado do curso naquele momento. As ordens já devem ter sido validadas. As
+     * atividades são criadas por {@code factory(curso, índice)} só depois de aberto o espaço, já com o curso que
+     * deve ser usado.
+     */
+    void insertAll(Course course, List<Integer> requestedOrders, BiFunction<Course, Integer, Task> factory);
+}
@@ -0,0 +1,60 @@
+package br.com.alura.AluraFake.service.ordering;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reespaça as chaves de ordenação de um curso em intervalos de {@link SparseTaskOrdering#GAP}, mantendo a ordem
+ * atual. Atividades ainda sem chave (gravadas no modo denso) são ordenadas por {@code order_number}.
+ */
+@Component
+public class TaskRankRebalancer {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Transactional
+    public void rebalance(Long courseId) {
+        // Trava o curso para que nenhuma inserção escolha uma chave enquanto as demais são reescritas
+        entityManager.find(Course.class, courseId, LockModeType.PESSIMISTIC_WRITE);
+
+        List<Task> tasks = entityManager
+                .createQuery("SELECT t FROM Task t WHERE t.course.id = :courseId ORDER BY t.rankKey, t.orderNumber", Task.class)
+                .setParameter("courseId", courseId)
+                .getResultList();
+
+        long rankKey = 0;
+        for (Task task : tasks) {
+            rankKey += SparseTaskOrdering.GAP;
+            task.setRankKey(rankKey);
+            task.setOrderNumber(null);
+        }
+    }
+
+    public void rebalanceAfterCommit(Long courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                taskExecutor.execute(() -> transactionTemplate.executeWithoutResult(status -> rebalance(courseId)));
+            }
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.alura.AluraFake.service.publish;
+
+import br.com.alura.AluraFake.infra.dto.course.CoursePublishJobDTO;
+import br.com.alura.AluraFake.infra.dto.course.CoursePublishResultDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estado em memória de um job de publicação em lote. Os lotes terminam em threads diferentes, então cada curso
+ * é marcado individualmente e os totais são contadores atômicos.
+ */
+class CoursePublishJob {
+
+    private static final String PENDING = "PENDING";
+    private static final String PUBLISHED = "PUBLISHED";
+    private static final String FAILED = "FAILED";
+
+    private final String id;
+    private final List<Long> courseIds;
+    private final Map<Long, CoursePublishResultDTO> results = new ConcurrentHashMap<>();
+    private final AtomicInteger published = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    CoursePublishJob(String id, List<Long> courseIds) {
+        this.id = id;
+        this.courseIds = List.copyOf(courseIds);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    List<Long> getCourseIds() {
+        return courseIds;
+    }
+
+    void markPublished(Long courseId) {
+        results.put(courseId, new CoursePublishResultDTO(courseId, PUBLISHED, null));
+        published.incrementAndGet();
+    }
+
+    void markFailed(Long courseId, String message) {
+        results.put(courseId, new CoursePublishResultDTO(courseId, FAILED, message));
+        failed.incrementAndGet();
+    }
+
+    CoursePublishJobDTO toDTO() {
+        int publishedCount = published.get();
+        int failedCount = failed.get();
+        List<CoursePublishResultDTO> snapshot = courseIds.stream()
+                .map(courseId -> results.getOrDefault(courseId, new CoursePublishResultDTO(courseId, PENDING, null)))
+                .toList();
+
+        return new CoursePublishJobDTO(id, publishedCount + failedCount == courseIds.size(), courseIds.size(),
+                publishedCount, failedCount, snapshot);
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.alura.AluraFake.service.publish;
+
+import br.com.alura.AluraFake.infra.dto.course.BatchPublishRequestDTO;
+import br.com.alura.AluraFake.infra.dto.course.CoursePublishJobDTO;
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.util.ApiException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publicação de muitos cursos em segundo plano. Os ids são divididos em lotes de
+ * {@code api.course.publish-batch.chunk-size}; cada lote é validado e publicado em uma transação própria, com até
+ * {@code api.course.publish-batch.parallelism} lotes em paralelo. O resultado de cada curso fica disponível pelo id
+ * do job até {@code api.course.publish-batch.retention} depois da última consulta.
+ */
+@Service
+public class CoursePublishJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(CoursePublishJobService.class);
+
+    @Autowired
+    private CourseService courseService;
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final ExecutorService executor;
+    private final Cache<String, CoursePublishJob> jobs;
+    private final int chunkSize;
+
+    public CoursePublishJobService(@Value("${api.course.publish-batch.parallelism:4}") int parallelism,
+                                   @Value("${api.course.publish-batch.chunk-size:100}") int chunkSize,
+                                   @Value("${api.course.publish-batch.retention:1h}") Duration retention) {
+        // Threads virtuais, mas limitadas: cada lote segura uma conexão do pool durante a transação
+        this.executor = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("course-publish-", 0).factory());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(retention)
+                .build();
+        this.chunkSize = chunkSize;
+    }
+
+    public CoursePublishJobDTO submit(BatchPublishRequestDTO request) {
+        CoursePublishJob job = new CoursePublishJob(UUID.randomUUID().toString(), resolveCourseIds(request));
+        jobs.put(job.getId(), job);
+
+        List<Long> courseIds = job.getCourseIds();
+        for (int from = 0; from < courseIds.size(); from += chunkSize) {
+            List<Long> chunk = courseIds.subList(from, Math.min(from + chunkSize, courseIds.size()));
+            executor.execute(() -> publishChunk(job, chunk));
+        }
+        return job.toDTO();
+    }
+
+    public CoursePublishJobDTO findJob(String jobId) {
+        CoursePublishJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ApiException(HttpStatus.NOT_FOUND, FailureReason.PUBLISH_JOB_NOT_FOUND, "Job de publicação não encontrado");
+        }
+        return job.toDTO();
+    }
+
+    private List<Long> resolveCourseIds(BatchPublishRequestDTO request) {
+        if (request.getCourseIds() != null && !request.getCourseIds().isEmpty()) {
+            // Ids repetidos seriam publicados e depois recusados como "já publicado" dentro do mesmo job
+            return new ArrayList<>(new LinkedHashSet<>(request.getCourseIds()));
+        }
+        if (request.getInstructorId() != null) {
+            return courseRepository.findIdsInBuildingByInstructor(request.getInstructorId());
+        }
+        throw new ApiException(
+                HttpStatus.BAD_REQUEST,
+                FailureReason.PUBLISH_TARGET_MISSING,
+                "Informe os cursos (courseIds) ou o instrutor (instructorId) a publicar");
+    }
+
+    private void publishChunk(CoursePublishJob job, List<Long> chunk) {
+        try {
+            Map<Long, String> errors = courseService.publishCourses(chunk);
+            for (Long courseId : chunk) {
+                if (errors.containsKey(courseId)) job.markFailed(courseId, errors.get(courseId));
+                else job.markPublished(courseId);
+            }
+        } catch (RuntimeException e) {
+            // Falha de infraestrutura: o lote inteiro sofreu rollback, nenhum curso dele foi publicado
+            log.error("Falha ao publicar lote do job {}", job.getId(), e);
+            chunk.forEach(courseId -> job.markFailed(courseId, "Erro inesperado ao publicar o lote"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
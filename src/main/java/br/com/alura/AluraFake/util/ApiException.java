@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.util;
+
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * {@link ResponseStatusException} com o motivo da falha explícito, contado por {@link ValidationFailureMetrics}.
+ */
+public class ApiException extends ResponseStatusException {
+
+    private final FailureReason failureReason;
+
+    public ApiException(HttpStatusCode status, FailureReason failureReason, String message) {
+        super(status, message);
+        this.failureReason = failureReason;
+    }
+
+    public FailureReason getFailureReason() {
+        return failureReason;
+    }
+}
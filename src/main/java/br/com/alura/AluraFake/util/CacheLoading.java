@@ -0,0 +1,46 @@
+package br.com.alura.AluraFake.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Carga de cache com consulta ao banco fora do {@code compute} do Caffeine. Num {@code cache.get(key, loader)} a
+ * consulta roda segurando o lock do bin do ConcurrentHashMap, travando também as chaves vizinhas; com threads virtuais
+ * e o pool do Hikari como único limite, isso vira fila escondida.
+ * <p>
+ * Aqui o mapa só recebe um future vazio; quem o inseriu faz a consulta na própria thread (e na própria transação, se
+ * houver) e completa o future, enquanto outras requisições pela mesma chave esperam por ele. Uma invalidação durante a
+ * consulta remove o future, então o valor lido antes dela não volta para o cache. Valor null não fica cacheado.
+ */
+public final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        // getIfPresent conta acerto/falta nas estatísticas; o putIfAbsent resolve quem chegou primeiro
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        if (existing == null) existing = cache.asMap().putIfAbsent(key, loading);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // A falha é de quem carregava (e já chegou a ele); esta requisição tenta por conta própria
+                return loader.apply(key);
+            }
+        }
+
+        try {
+            V value = loader.apply(key);
+            loading.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Esgotar o pool de conexões é sobrecarga, não erro do servidor: devolve 503 com Retry-After para o cliente tentar
+ * de novo em vez de um 500 genérico.
+ */
+@ControllerAdvice
+public class ConnectionPoolExceptionHandler {
+
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ErrorItemDTO> handleConnectionTimeout(Exception ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorItemDTO("database", "Servidor ocupado, tente novamente"));
+    }
+}
@@ -0,0 +1,130 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Versões que viram ETags das listagens (/course/all, /user/all e /instructor/{id}/courses): a requisição condicional
+ * lê só a versão, por chave primária na tabela {@code content_version}, e responde 304 sem consultar os dados nem
+ * serializar nada.
+ * <p>
+ * As versões ficam no banco, compartilhadas por todas as instâncias. O incremento roda depois do commit da escrita, numa
+ * transação própria e curta: o lock da linha não fica preso à transação de quem escreveu, então escritas em cursos
+ * diferentes do mesmo instrutor (ou publicações em paralelo) não se enfileiram por causa do contador. Um rollback
+ * não incrementa nada. Entre o commit e o incremento uma leitura pode levar dados novos com o ETag antigo, o que só
+ * custa um 200 a mais depois; o contrário (dados antigos com ETag novo) não acontece, então não há 304 indevido.
+ */
+@Component
+public class ContentVersions {
+
+    private static final String COURSES = "courses";
+    private static final String USERS = "users";
+    private static final String ALL_INSTRUCTORS = "instructors";
+
+    private static final String BUMP =
+            "INSERT INTO content_version (resource, version) VALUES (?, 1) ON DUPLICATE KEY UPDATE version = version + 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public String coursesEtag() {
+        return etag(COURSES, versions(COURSES).getOrDefault(COURSES, 0L));
+    }
+
+    public String usersEtag() {
+        return etag(USERS, versions(USERS).getOrDefault(USERS, 0L));
+    }
+
+    public String instructorEtag(Long instructorId) {
+        String instructor = instructor(instructorId);
+        Map<String, Long> versions = versions(ALL_INSTRUCTORS, instructor);
+        return etag(instructor, versions.getOrDefault(ALL_INSTRUCTORS, 0L) + "." + versions.getOrDefault(instructor, 0L));
+    }
+
+    /**
+     * Curso criado ou publicado: muda a listagem de cursos e o relatório do instrutor.
+     */
+    public void courseChanged(Long instructorId) {
+        bumpAfterCommit(COURSES, instructor(instructorId));
+    }
+
+    /**
+     * Atividades do curso alteradas: só a contagem do relatório do instrutor muda.
+     */
+    public void tasksChanged(Long instructorId) {
+        bumpAfterCommit(instructor(instructorId));
+    }
+
+    /**
+     * Contadores de vários cursos reconstruídos de uma vez: invalida os relatórios de todos os instrutores.
+     */
+    public void allInstructorsChanged() {
+        bumpAfterCommit(ALL_INSTRUCTORS);
+    }
+
+    public void usersChanged() {
+        bumpAfterCommit(USERS);
+    }
+
+    /**
+     * Dados gravados por fora dos serviços (carga sintética): invalida todas as listagens.
+     */
+    public void allChanged() {
+        bumpAfterCommit(COURSES, USERS, ALL_INSTRUCTORS);
+    }
+
+    // Sem transação ativa a escrita já foi confirmada, então incrementa na hora
+    private void bumpAfterCommit(String... resources) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(resources);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(resources);
+            }
+        });
+    }
+
+    // REQUIRES_NEW porque no afterCommit a conexão da transação original ainda está na thread e nada mais seria
+    // confirmado nela. As linhas vão sempre na ordem recebida (global antes da do instrutor), sem travamento cruzado
+    private void bump(String... resources) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transaction.executeWithoutResult(status -> {
+            for (String resource : resources) {
+                jdbcTemplate.update(BUMP, resource);
+            }
+        });
+    }
+
+    private Map<String, Long> versions(String... resources) {
+        String placeholders = String.join(", ", Collections.nCopies(resources.length, "?"));
+        return jdbcTemplate.query("SELECT resource, version FROM content_version WHERE resource IN (" + placeholders + ")",
+                        (rs, row) -> Map.entry(rs.getString("resource"), rs.getLong("version")),
+                        (Object[]) resources)
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static String instructor(Long instructorId) {
+        return "instructor-" + instructorId;
+    }
+
+    private static String etag(String resource, Object version) {
+        return "W/\"" + resource + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.alura.AluraFake.util;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Mede quantos comandos SQL cada requisição executa e quanto tempo passa no banco, e avisa no log quando o orçamento
+ * ({@code api.query-budget.max-statements} / {@code max-time}) é estourado, o sinal típico de um N+1. Com
+ * {@code api.query-budget.headers=true} (dev e testes) os números também vão nos cabeçalhos X-Query-Count e
+ * X-Query-Time, gravados quando a resposta é confirmada, já que depois disso não dá mais para mudar cabeçalhos.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    @Value("${api.query-budget.headers:false}")
+    private boolean exposeHeaders;
+    @Value("${api.query-budget.max-statements:20}")
+    private long maxStatements;
+    @Value("${api.query-budget.max-time:500ms}")
+    private Duration maxTime;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestQueryStatistics.Window window = RequestQueryStatistics.open();
+        StatisticsHeaderResponse wrapped = exposeHeaders ? new StatisticsHeaderResponse(response, window) : null;
+        try {
+            chain.doFilter(request, wrapped != null ? wrapped : response);
+            if (wrapped != null) wrapped.writeHeaders();
+        } finally {
+            RequestQueryStatistics.close();
+            warnIfOverBudget(request, window);
+        }
+    }
+
+    private void warnIfOverBudget(HttpServletRequest request, RequestQueryStatistics.Window window) {
+        if (window.statements() > maxStatements || window.millis() > maxTime.toMillis()) {
+            log.warn("{} {} executou {} comandos SQL em {} ms (orçamento: {} comandos, {} ms)",
+                    request.getMethod(), request.getRequestURI(), window.statements(), Math.round(window.millis()),
+                    maxStatements, maxTime.toMillis());
+        }
+    }
+
+    private static class StatisticsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final RequestQueryStatistics.Window window;
+        private boolean written;
+
+        StatisticsHeaderResponse(HttpServletResponse response, RequestQueryStatistics.Window window) {
+            super(response);
+            this.window = window;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) return;
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, Long.toString(window.statements()));
+            setHeader(QUERY_TIME_HEADER, String.format(Locale.ROOT, "%.2f", window.millis()));
+        }
+    }
+}
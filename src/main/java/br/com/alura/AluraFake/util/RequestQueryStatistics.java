@@ -0,0 +1,71 @@
+package br.com.alura.AluraFake.util;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Conta os comandos SQL e o tempo gasto no banco dentro de uma janela aberta na thread corrente (uma requisição HTTP,
+ * aberta pelo {@link QueryBudgetFilter}). Registrado em toda sessão do Hibernate por
+ * {@code hibernate.session.events.auto}; fora de uma janela não faz nada.
+ * <p>
+ * Cada execução de comando ou de lote JDBC conta como um comando, já que é uma ida ao banco. Consultas feitas direto
+ * pelo {@code JdbcTemplate} não passam pelo Hibernate e ficam de fora.
+ */
+public class RequestQueryStatistics implements SessionEventListener {
+
+    private static final ThreadLocal<Window> CURRENT = new ThreadLocal<>();
+
+    // A sessão é usada por uma thread de cada vez, então o início da execução corrente pode ficar na instância
+    private long executionStart;
+
+    public static Window open() {
+        Window window = new Window();
+        CURRENT.set(window);
+        return window;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executionStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record();
+    }
+
+    private void record() {
+        Window window = CURRENT.get();
+        if (window != null) {
+            window.statements++;
+            window.nanos += System.nanoTime() - executionStart;
+        }
+    }
+
+    public static class Window {
+
+        private long statements;
+        private long nanos;
+
+        public long statements() {
+            return statements;
+        }
+
+        public double millis() {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
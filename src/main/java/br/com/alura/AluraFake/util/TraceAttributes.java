@@ -0,0 +1,22 @@
+package br.com.alura.AluraFake.util;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Anota a observação corrente (o span do método de serviço em execução) com dados do caso, como id do curso e
+ * quantidade de atividades deslocadas. Vão como atributos de alta cardinalidade: aparecem no trace, não nas métricas.
+ */
+@Component
+public class TraceAttributes {
+
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    public void put(String key, Object value) {
+        Observation current = observationRegistry.getCurrentObservation();
+        if (current != null) current.highCardinalityKeyValue(key, String.valueOf(value));
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.alura.AluraFake.util;
+
+import br.com.alura.AluraFake.infra.enumerated.FailureReason;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Conta as falhas de validação devolvidas ao cliente ({@code api.validation.failures}) por status e motivo. O motivo é
+ * o código de {@link FailureReason} que cada validação informa em {@link ApiException} (ex.: {@code duplicate-statement}),
+ * não a mensagem: várias mensagens carregam ordens e enunciados, o que multiplicaria as séries sem limite.
+ * <p>
+ * Só registra e devolve {@code null}, então a resposta continua sendo montada pelos resolvedores de sempre.
+ */
+@Component
+public class ValidationFailureMetrics implements HandlerExceptionResolver, Ordered {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex instanceof ResponseStatusException statusException && statusException.getStatusCode().is4xxClientError()) {
+            count(statusException.getStatusCode().value(), reasonOf(statusException));
+        } else if (ex instanceof MethodArgumentNotValidException) {
+            count(400, "bean-validation");
+        }
+        return null;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private void count(int status, String reason) {
+        Counter.builder("api.validation.failures")
+                .tag("status", Integer.toString(status))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // ResponseStatusException sem motivo vem de fora dos serviços (ex.: do próprio Spring)
+    private static String reasonOf(ResponseStatusException ex) {
+        return ex instanceof ApiException apiException ? apiException.getFailureReason().getCode() : "other";
+    }
+}
@@ -0,0 +1,3 @@
+ALTER TABLE task
+    ADD COLUMN options_text VARCHAR(500) NULL,
+    ADD COLUMN correct_options TINYINT UNSIGNED NULL;
@@ -0,0 +1,7 @@
+CREATE TABLE course_content (
+    course_id BIGINT PRIMARY KEY,
+    etag VARCHAR(66) NOT NULL,
+    body MEDIUMBLOB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_course_content_course FOREIGN KEY (course_id) REFERENCES Course(id)
+);
@@ -0,0 +1,2 @@
+ALTER TABLE User
+    ADD COLUMN tokenVersion INT NOT NULL DEFAULT 0;
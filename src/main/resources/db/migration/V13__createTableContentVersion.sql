@@ -0,0 +1,6 @@
+-- Versões das listagens usadas como ETag (ContentVersions); cada escrita incrementa a sua linha na própria transação
+CREATE TABLE content_version (
+    resource VARCHAR(64) NOT NULL,
+    version BIGINT NOT NULL,
+    PRIMARY KEY (resource)
+) ENGINE=InnoDB;
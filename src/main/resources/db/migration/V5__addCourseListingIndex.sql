@@ -0,0 +1 @@
+CREATE INDEX idx_course_status_id ON Course(status, id);
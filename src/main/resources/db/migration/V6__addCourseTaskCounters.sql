@@ -0,0 +1,11 @@
+ALTER TABLE Course
+    ADD COLUMN openTextTaskCount INT NOT NULL DEFAULT 0,
+    ADD COLUMN singleChoiceTaskCount INT NOT NULL DEFAULT 0,
+    ADD COLUMN multipleChoiceTaskCount INT NOT NULL DEFAULT 0,
+    ADD COLUMN maxTaskOrder INT NOT NULL DEFAULT 0;
+
+UPDATE Course c SET
+    openTextTaskCount = (SELECT COUNT(*) FROM task t WHERE t.course_id = c.id AND t.type = 'OPEN_TEXT'),
+    singleChoiceTaskCount = (SELECT COUNT(*) FROM task t WHERE t.course_id = c.id AND t.type = 'SINGLE_CHOICE'),
+    multipleChoiceTaskCount = (SELECT COUNT(*) FROM task t WHERE t.course_id = c.id AND t.type = 'MULTIPLE_CHOICE'),
+    maxTaskOrder = COALESCE((SELECT MAX(t.order_number) FROM task t WHERE t.course_id = c.id), 0);
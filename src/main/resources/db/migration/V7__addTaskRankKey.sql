@@ -0,0 +1,5 @@
+ALTER TABLE task
+    MODIFY COLUMN order_number INT NULL,
+    ADD COLUMN rank_key BIGINT NULL;
+
+CREATE INDEX idx_task_course_rank ON task(course_id, rank_key);
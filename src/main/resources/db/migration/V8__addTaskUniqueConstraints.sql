@@ -0,0 +1,32 @@
+-- Antes das restrições: sem lock por curso, a API aceitava ordens e enunciados repetidos sob concorrência,
+-- e um banco com essas linhas faria o ALTER falhar e o Flyway travar a subida.
+
+-- Ordens repetidas: as atividades do curso são renumeradas em sequência, mantendo a ordem atual (no empate, a de criação)
+UPDATE task t
+JOIN (
+    SELECT id, ROW_NUMBER() OVER (PARTITION BY course_id ORDER BY order_number, id) AS new_order
+    FROM task
+    WHERE order_number IS NOT NULL
+      AND course_id IN (SELECT course_id FROM task WHERE order_number IS NOT NULL
+                        GROUP BY course_id, order_number HAVING COUNT(*) > 1)
+) renumbered ON renumbered.id = t.id
+SET t.order_number = renumbered.new_order;
+
+UPDATE Course c SET maxTaskOrder = COALESCE((SELECT MAX(t.order_number) FROM task t WHERE t.course_id = c.id), 0);
+
+-- Enunciados repetidos (pela collation da coluna, a mesma da restrição): a primeira atividade fica como está e as
+-- demais ganham o id no texto, sem perder dados
+UPDATE task t
+JOIN (
+    SELECT id FROM (
+        SELECT id, ROW_NUMBER() OVER (PARTITION BY course_id, statement ORDER BY id) AS position FROM task
+    ) numbered
+    WHERE position > 1
+) repeated ON repeated.id = t.id
+SET t.statement = CONCAT(LEFT(t.statement, 220), ' (duplicada #', t.id, ')');
+
+ALTER TABLE task
+    ADD CONSTRAINT uk_task_course_order UNIQUE (course_id, order_number),
+    ADD CONSTRAINT uk_task_course_statement UNIQUE (course_id, statement);
+
+DROP INDEX idx_task_course_statement ON task;
@@ -0,0 +1,10 @@
+-- Tabelas de sequência usadas pelo gerador "pooled" do Hibernate (MySQL não tem SEQUENCE).
+-- Cada leitura reserva um bloco de 50 ids; o valor inicial fica além dos ids já gerados por AUTO_INCREMENT.
+CREATE TABLE user_seq (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+INSERT INTO user_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM User;
+
+CREATE TABLE course_seq (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+INSERT INTO course_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM Course;
+
+CREATE TABLE task_seq (next_val BIGINT NOT NULL) ENGINE=InnoDB;
+INSERT INTO task_seq (next_val) SELECT COALESCE(MAX(id), 0) + 51 FROM task;
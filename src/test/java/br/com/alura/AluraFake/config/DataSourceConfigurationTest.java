@@ -0,0 +1,64 @@
+package br.com.alura.AluraFake.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DataSourceConfigurationTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("idGeneratorPool")
+    private HikariDataSource idGeneratorPool;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void shouldInjectTheApplicationPool() {
+        assertNotSame(idGeneratorPool, dataSource);
+    }
+
+    @Test
+    public void shouldServeConnectionsOpenedInsideATransactionFromTheApplicationPool() {
+        // Mais conexões do que o pool de ids tem: nenhuma delas pode sair dele
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < 3; i++) connections.add(dataSource.getConnection());
+                HikariPoolMXBean ids = idGeneratorPool.getHikariPoolMXBean();
+                assertEquals(0, ids == null ? 0 : ids.getActiveConnections());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                connections.forEach(DataSourceConfigurationTest::close);
+            }
+        });
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
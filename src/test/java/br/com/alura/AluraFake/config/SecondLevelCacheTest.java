@@ -0,0 +1,105 @@
+package br.com.alura.AluraFake.config;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: o cache de segundo nível só é preenchido e atualizado no commit
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void shouldServeRepeatedUserReadsFromCache() {
+        Long userId = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR)).getId();
+
+        statistics.clear();
+        User first = userRepository.findById(userId).orElseThrow();
+        User second = userRepository.findById(userId).orElseThrow();
+
+        assertEquals(first.getName(), second.getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("user").getHitCount());
+    }
+
+    @Test
+    public void shouldSeeCommittedUpdateInsteadOfCachedState() {
+        Long userId = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR)).getId();
+        userRepository.findById(userId).orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.incrementTokenVersion(userId));
+
+        assertEquals(1, userRepository.findById(userId).orElseThrow().getTokenVersion());
+    }
+
+    @Test
+    public void shouldReadCourseFromDatabase() {
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        Long courseId = courseRepository.save(new Course("Java", "Curso de Java", instructor)).getId();
+        courseRepository.findById(courseId).orElseThrow();
+
+        // Releitura após o deslocamento em lote da ordenação: tem de vir do banco, não de uma cópia em cache
+        statistics.clear();
+        courseRepository.findById(courseId).orElseThrow();
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    public void shouldCacheFindByEmailUntilUsersChange() {
+        userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+
+        statistics.clear();
+        assertTrue(userRepository.findByEmail("instrutor@test.com").isPresent());
+        assertTrue(userRepository.findByEmail("instrutor@test.com").isPresent());
+        assertTrue(userRepository.findByEmail("aluno@test.com").isEmpty());
+
+        assertEquals(1, statistics.getQueryCacheHitCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        // O cadastro invalida o resultado vazio já cacheado para o mesmo email
+        userRepository.save(new User("Aluno", "aluno@test.com", Role.STUDENT));
+        assertTrue(userRepository.findByEmail("aluno@test.com").isPresent());
+    }
+}
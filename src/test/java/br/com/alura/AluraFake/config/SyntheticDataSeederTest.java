@@ -0,0 +1,104 @@
+package br.com.alura.AluraFake.config;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "api.seed.synthetic.instructors=7",
+        "api.seed.synthetic.courses-per-instructor=6",
+        "api.seed.synthetic.tasks-per-course-min=0",
+        "api.seed.synthetic.tasks-per-course-max=12",
+        "api.seed.synthetic.published-ratio=0.5",
+        "api.seed.synthetic.students=250",
+        "api.seed.synthetic.parallelism=3",
+        "api.seed.synthetic.batch-size=40",
+        "api.seed.synthetic.instructors-per-unit=2"
+})
+public class SyntheticDataSeederTest {
+
+    @Autowired
+    private SyntheticDataSeeder syntheticDataSeeder;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    public void shouldSeedRequestedVolumeWithConsistentCourseCounters() {
+        syntheticDataSeeder.seed();
+
+        assertEquals(7 + 250, userRepository.count());
+        assertEquals(7 * 6, courseRepository.count());
+        assertTrue(taskRepository.count() > 0);
+
+        Integer inconsistent = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM Course c
+                WHERE c.openTextTaskCount <> (SELECT COUNT(*) FROM Task t WHERE t.course_id = c.id AND t.type = 'OPEN_TEXT')
+                   OR c.singleChoiceTaskCount <> (SELECT COUNT(*) FROM Task t WHERE t.course_id = c.id AND t.type = 'SINGLE_CHOICE')
+                   OR c.multipleChoiceTaskCount <> (SELECT COUNT(*) FROM Task t WHERE t.course_id = c.id AND t.type = 'MULTIPLE_CHOICE')
+                   OR c.maxTaskOrder <> COALESCE((SELECT MAX(t.order_number) FROM Task t WHERE t.course_id = c.id), 0)
+                """, Integer.class);
+        assertEquals(0, inconsistent);
+
+        Integer unpublishable = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM Course
+                WHERE status = 'PUBLISHED'
+                  AND (openTextTaskCount = 0 OR singleChoiceTaskCount = 0 OR multipleChoiceTaskCount = 0)
+                """, Integer.class);
+        assertEquals(0, unpublishable);
+    }
+
+    @Test
+    public void shouldLeaveIdSequencesAheadOfSeededRows() {
+        syntheticDataSeeder.seed();
+        Long maxSeededId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM User", Long.class);
+
+        // O bloco de ids que o Hibernate já tinha em memória vem antes da reserva; esgotado, o próximo vem depois dela
+        User last = null;
+        for (int i = 0; i <= 50; i++) {
+            last = userRepository.save(new User("Novo " + i, "novo" + i + "@test.com", Role.STUDENT));
+        }
+
+        assertEquals(7 + 250 + 51, userRepository.count());
+        assertTrue(last.getId() > maxSeededId);
+    }
+
+    @Test
+    public void shouldNotSeedTwice() {
+        syntheticDataSeeder.seed();
+        syntheticDataSeeder.seed();
+
+        assertEquals(7 + 250, userRepository.count());
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.alura.AluraFake.config;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TailSamplingSpanProcessorTest {
+
+    private final List<SpanData> exported = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void shouldDropFastTracesThatWereNotSampled() {
+        Tracer tracer = tracer(0.0, Duration.ofMillis(500));
+
+        trace(tracer, Instant.now());
+
+        assertEquals(0, exported.size());
+    }
+
+    @Test
+    void shouldAlwaysKeepTracesSlowerThanTheThreshold() {
+        Tracer tracer = tracer(0.0, Duration.ofMillis(500));
+
+        trace(tracer, Instant.now().minusSeconds(1));
+
+        assertEquals(List.of("child", "root"), exported.stream().map(SpanData::getName).toList());
+    }
+
+    @Test
+    void shouldKeepSampledTraces() {
+        Tracer tracer = tracer(1.0, Duration.ofMinutes(1));
+
+        trace(tracer, Instant.now());
+
+        assertEquals(2, exported.size());
+    }
+
+    @Test
+    void shouldApplyTheDecisionToSpansEndingAfterTheRoot() {
+        Tracer tracer = tracer(0.0, Duration.ofMillis(500));
+
+        Span root = tracer.spanBuilder("root").setStartTimestamp(Instant.now().minusSeconds(1)).startSpan();
+        Span late = tracer.spanBuilder("late").setParent(Context.current().with(root)).startSpan();
+        root.end();
+        late.end();
+
+        assertEquals(List.of("root", "late"), exported.stream().map(SpanData::getName).toList());
+    }
+
+    @Test
+    void shouldExportTracesPushedOutOfAFullBufferInsteadOfDroppingThem() {
+        Tracer tracer = tracer(0.0, Duration.ofMinutes(1), 2);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        for (int i = 0; i < 3; i++) {
+            tracer.spanBuilder("child").setParent(Context.current().with(root)).startSpan().end();
+        }
+        root.end();
+
+        assertEquals(List.of("child", "child", "child", "root"), exported.stream().map(SpanData::getName).toList());
+    }
+
+    @Test
+    void shouldNotLoseSpansEndingConcurrentlyWithTheRoot() throws Exception {
+        Tracer tracer = tracer(1.0, Duration.ofMinutes(1));
+        int traces = 2_000;
+        int children = 3;
+
+        ExecutorService executor = Executors.newFixedThreadPool(children + 1);
+        try {
+            for (int i = 0; i < traces; i++) {
+                Span root = tracer.spanBuilder("root").startSpan();
+                List<Span> spans = new ArrayList<>();
+                for (int c = 0; c < children; c++) {
+                    spans.add(tracer.spanBuilder("child").setParent(Context.current().with(root)).startSpan());
+                }
+                spans.add(root);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> ends = new ArrayList<>();
+                for (Span span : spans) {
+                    ends.add(executor.submit(() -> {
+                        start.await();
+                        span.end();
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> end : ends) end.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(traces * (children + 1), exported.size());
+    }
+
+    private void trace(Tracer tracer, Instant rootStart) {
+        Span root = tracer.spanBuilder("root").setStartTimestamp(rootStart).startSpan();
+        tracer.spanBuilder("child").setParent(Context.current().with(root)).startSpan().end();
+        root.end();
+    }
+
+    private Tracer tracer(double sampleRatio, Duration slowThreshold) {
+        return tracer(sampleRatio, slowThreshold, 10_000);
+    }
+
+    private Tracer tracer(double sampleRatio, Duration slowThreshold, long maxPendingSpans) {
+        SpanExporter exporter = new SpanExporter() {
+            @Override
+            public CompletableResultCode export(Collection<SpanData> spans) {
+                exported.addAll(spans);
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode flush() {
+                return CompletableResultCode.ofSuccess();
+            }
+
+            @Override
+            public CompletableResultCode shutdown() {
+                return CompletableResultCode.ofSuccess();
+            }
+        };
+        return SdkTracerProvider.builder()
+                .addSpanProcessor(new TailSamplingSpanProcessor(SimpleSpanProcessor.create(exporter), sampleRatio, slowThreshold,
+                        maxPendingSpans))
+                .build()
+                .get("test");
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.alura.AluraFake.config;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Limite zero: todo trace é "lento", então todos chegam ao exportador
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(roles = "INSTRUCTOR")
+@TestPropertySource(properties = {"api.tracing.sample-ratio=0", "api.tracing.slow-threshold=0ms"})
+public class TracingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @Autowired
+    private CapturingSpanExporter exporter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private Course course;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+        exporter.spans.clear();
+    }
+
+    @Test
+    public void shouldTraceRequestServiceAndRepositoryCallsWithCaseAttributes() throws Exception {
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskRequestDTO(course.getId(), "Qual é a diferença entre JDK e JRE?", 1))))
+                .andExpect(status().isCreated());
+        tracerProvider.forceFlush().join(10, TimeUnit.SECONDS);
+
+        SpanData service = spanNamed("task-service#create-open-text-task");
+        assertEquals(course.getId().toString(), service.getAttributes().get(AttributeKey.stringKey("course.id")));
+        assertEquals("0", service.getAttributes().get(AttributeKey.stringKey("task.order_shift")));
+
+        SpanData repository = spanNamed("course-repository.find-by-id-for-update");
+        assertEquals(service.getSpanId(), repository.getParentSpanId());
+
+        SpanData request = spanNamed("http post /task/new/opentext");
+        assertEquals(request.getTraceId(), service.getTraceId());
+    }
+
+    private SpanData spanNamed(String name) {
+        return exporter.spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseGet(() -> fail("Span " + name + " não exportado; exportados: "
+                        + exporter.spans.stream().map(SpanData::getName).toList()));
+    }
+
+    @TestConfiguration
+    static class ExporterConfiguration {
+
+        @Bean
+        CapturingSpanExporter capturingSpanExporter() {
+            return new CapturingSpanExporter();
+        }
+    }
+
+    static class CapturingSpanExporter implements SpanExporter {
+
+        final List<SpanData> spans = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableResultCode export(Collection<SpanData> exported) {
+            spans.addAll(exported);
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode flush() {
+            return CompletableResultCode.ofSuccess();
+        }
+
+        @Override
+        public CompletableResultCode shutdown() {
+            return CompletableResultCode.ofSuccess();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseContentRepository;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.util.ContentVersions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Sem @Transactional: as versões só mudam com o commit das escritas
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "INSTRUCTOR")
+public class ConditionalListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseContentRepository courseContentRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ContentVersions contentVersions;
+
+    private User instructor;
+    private Course course;
+
+    @AfterEach
+    public void cleanup() {
+        courseContentRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWithoutLoadingTheListing() throws Exception {
+        String etag = etagOf("/course/all");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Só a linha de content_version é lida, por JDBC; nenhuma consulta de cursos passa pelo Hibernate
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldSeeWritesMadeByAnotherInstance() throws Exception {
+        String etag = etagOf("/course/all");
+
+        ContentVersions otherInstance = new ContentVersions();
+        ReflectionTestUtils.setField(otherInstance, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(otherInstance, "transactionManager", transactionManager);
+        otherInstance.courseChanged(instructor.getId());
+
+        mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldBumpVersionOutsideTheWritingTransaction() {
+        String before = contentVersions.instructorEtag(instructor.getId());
+
+        // Dentro da transação de quem escreve nada é gravado em content_version, então nenhum lock fica preso a ela
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            contentVersions.tasksChanged(instructor.getId());
+            assertEquals(before, contentVersions.instructorEtag(instructor.getId()));
+        });
+
+        assertNotEquals(before, contentVersions.instructorEtag(instructor.getId()));
+    }
+
+    @Test
+    public void shouldChangeCourseListingEtagWhenCourseIsCreated() throws Exception {
+        String etag = etagOf("/course/all");
+
+        mockMvc.perform(post("/course/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"title": "Kotlin", "description": "Curso de Kotlin", "emailInstructor": "instrutor@test.com"}"""))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/course/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldChangeInstructorReportEtagOnlyWhenTaskIsCommitted() throws Exception {
+        String report = "/instructor/" + instructor.getId() + "/courses";
+        String etag = etagOf(report);
+
+        // Ordem inválida: a transação é desfeita e a versão continua a mesma
+        postOpenText(5).andExpect(status().isBadRequest());
+        mockMvc.perform(get(report).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        postOpenText(1).andExpect(status().isCreated());
+        mockMvc.perform(get(report).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldChangeUserListingEtagWhenUserIsCreated() throws Exception {
+        String etag = etagOf("/user/all");
+        mockMvc.perform(get("/user/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/user/new")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Aluno", "email": "aluno@test.com", "role": "STUDENT"}"""))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/user/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etagOf(String path) throws Exception {
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        return etag;
+    }
+
+    private ResultActions postOpenText(int order) throws Exception {
+        return mockMvc.perform(post("/task/new/opentext")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"courseId": %d, "statement": "O que é Java?", "order": %d}""".formatted(course.getId(), order)));
+    }
+}
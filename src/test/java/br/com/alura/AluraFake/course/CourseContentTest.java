@@ -0,0 +1,162 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.CourseContent;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseContentRepository;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: o conteúdo só entra no cache depois do commit da publicação
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "INSTRUCTOR")
+public class CourseContentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseContentRepository courseContentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+
+    @AfterEach
+    public void cleanup() {
+        courseContentRepository.deleteAllInBatch();
+        taskRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = transactionTemplate.execute(status -> {
+            Course created = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+            taskRepository.save(new Task("O que é Java?", 1, Type.OPEN_TEXT, created));
+            taskRepository.save(new Task("O que significa JVM?", 2, Type.SINGLE_CHOICE, created, List.of(
+                    new TaskOption("Java Virtual Machine", true),
+                    new TaskOption("JavaScript Virtual Machine", false))));
+            taskRepository.save(new Task("Quais são conceitos de POO?", 3, Type.MULTIPLE_CHOICE, created, List.of(
+                    new TaskOption("Herança", true),
+                    new TaskOption("Polimorfismo", true),
+                    new TaskOption("Variável global", false))));
+            return created;
+        });
+    }
+
+    @Test
+    public void shouldServeContentBuiltAtPublishWithoutQueries() throws Exception {
+        mockMvc.perform(post("/course/" + course.getId() + "/publish"))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/course/" + course.getId() + "/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"")))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("no-cache")))
+                .andExpect(jsonPath("$.title").value("Java Basics"))
+                .andExpect(jsonPath("$.tasks[*].order", contains(1, 2, 3)))
+                .andExpect(jsonPath("$.tasks[0].options", empty()))
+                .andExpect(jsonPath("$.tasks[2].options", contains("Herança", "Polimorfismo", "Variável global")))
+                .andExpect(content().string(not(containsString("correct"))));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void shouldAnswerNotModifiedWhenEtagMatches() throws Exception {
+        mockMvc.perform(post("/course/" + course.getId() + "/publish"))
+                .andExpect(status().isOk());
+        String etag = mockMvc.perform(get("/course/" + course.getId() + "/content"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/course/" + course.getId() + "/content").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    public void shouldNotServeCourseStillInBuilding() throws Exception {
+        mockMvc.perform(get("/course/" + course.getId() + "/content"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void shouldBuildContentOnFirstReadForCoursePublishedWithoutSnapshot() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                courseRepository.findById(course.getId()).orElseThrow().setStatus(Status.PUBLISHED));
+
+        mockMvc.perform(get("/course/" + course.getId() + "/content"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(3)));
+
+        assertTrue(courseContentRepository.existsById(course.getId()));
+    }
+
+    @Test
+    public void shouldKeepContentStoredByAnotherInstanceWhenBothBuildOnFirstRead() throws Exception {
+        transactionTemplate.executeWithoutResult(status ->
+                courseRepository.findById(course.getId()).orElseThrow().setStatus(Status.PUBLISHED));
+        courseContentRepository.save(new CourseContent(course.getId(), "\"outra-instancia\"",
+                "{}".getBytes(StandardCharsets.UTF_8)));
+
+        // A instância que grava depois não recebe chave duplicada e a linha da primeira continua valendo
+        courseContentRepository.insertIfAbsent(course.getId(), "\"esta-instancia\"",
+                "[]".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/course/" + course.getId() + "/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"outra-instancia\""));
+    }
+}
@@ -1,27 +1,37 @@
 package br.com.alura.AluraFake.course;
 
 import br.com.alura.AluraFake.adapter.CourseController;
+import br.com.alura.AluraFake.infra.dto.course.CourseListItemDTO;
 import br.com.alura.AluraFake.infra.dto.course.NewCourseDTO;
 import br.com.alura.AluraFake.infra.entity.Course;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
 import br.com.alura.AluraFake.security.SecurityFilter;
 import br.com.alura.AluraFake.security.TokenService;
+import br.com.alura.AluraFake.service.CourseContentService;
 import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.service.ExportService;
+import br.com.alura.AluraFake.service.publish.CoursePublishJobService;
+import br.com.alura.AluraFake.util.ContentVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.*;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -43,11 +53,23 @@ class CourseControllerTest {
     @MockBean
     private CourseService courseService;
 
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private CoursePublishJobService coursePublishJobService;
+
+    @MockBean
+    private CourseContentService courseContentService;
+
     @MockBean
     private TokenService tokenService;
 
     @MockBean
     private SecurityFilter securityFilter;
+
+    @MockBean
+    private ContentVersions contentVersions;
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -115,17 +137,17 @@ class CourseControllerTest {
 
     @Test
     void listAllCourses__should_list_all_courses() throws Exception {
-        User paulo = new User("Paulo", "paulo@alua.com.br", Role.INSTRUCTOR);
-
-        Course java = new Course("Java", "Curso de java", paulo);
-        Course hibernate = new Course("Hibernate", "Curso de hibernate", paulo);
-        Course spring = new Course("Spring", "Curso de spring", paulo);
+        List<CourseListItemDTO> courses = Arrays.asList(
+                new CourseListItemDTO(1L, "Java", "Curso de java", Status.BUILDING),
+                new CourseListItemDTO(2L, "Hibernate", "Curso de hibernate", Status.BUILDING),
+                new CourseListItemDTO(3L, "Spring", "Curso de spring", Status.PUBLISHED));
 
-        when(courseRepository.findAll()).thenReturn(Arrays.asList(java, hibernate, spring));
+        when(courseRepository.findPageAfter(eq(0L), isNull(), isNull(), any(Limit.class))).thenReturn(courses);
 
         mockMvc.perform(get("/course/all")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$[0].title").value("Java"))
                 .andExpect(jsonPath("$[0].description").value("Curso de java"))
                 .andExpect(jsonPath("$[1].title").value("Hibernate"))
@@ -134,4 +156,32 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[2].description").value("Curso de spring"));
     }
 
-}
\ No newline at end of file
+    @Test
+    void listAllCourses__should_link_next_page_when_page_is_full() throws Exception {
+        List<CourseListItemDTO> courses = Arrays.asList(
+                new CourseListItemDTO(11L, "Java", "Curso de java", Status.PUBLISHED),
+                new CourseListItemDTO(12L, "Spring", "Curso de spring", Status.PUBLISHED));
+
+        when(courseRepository.findPageAfter(eq(10L), eq(Status.PUBLISHED), eq(7L), eq(Limit.of(2)))).thenReturn(courses);
+
+        mockMvc.perform(get("/course/all")
+                        .param("after", "10")
+                        .param("size", "2")
+                        .param("status", "PUBLISHED")
+                        .param("instructorId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=12")))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void listAllCourses__should_cap_page_size() throws Exception {
+        when(courseRepository.findPageAfter(any(), any(), any(), any(Limit.class))).thenReturn(List.of());
+
+        mockMvc.perform(get("/course/all").param("size", "100000"))
+                .andExpect(status().isOk());
+
+        verify(courseRepository).findPageAfter(eq(0L), isNull(), isNull(), eq(Limit.of(200)));
+    }
+
+}
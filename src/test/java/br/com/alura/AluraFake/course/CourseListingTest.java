@@ -0,0 +1,98 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser
+public class CourseListingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User instructor;
+    private User otherInstructor;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        otherInstructor = userRepository.save(new User("Outro", "outro@test.com", Role.INSTRUCTOR));
+    }
+
+    @Test
+    public void shouldWalkThroughPagesUsingTheCursor() throws Exception {
+        Course java = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+        Course spring = courseRepository.save(new Course("Spring", "Curso de Spring", instructor));
+        Course react = courseRepository.save(new Course("React", "Curso de React", instructor));
+
+        mockMvc.perform(get("/course/all").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(java.getId()))
+                .andExpect(jsonPath("$[1].id").value(spring.getId()))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=" + spring.getId())));
+
+        mockMvc.perform(get("/course/all").param("size", "2").param("after", spring.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(react.getId()))
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    public void shouldFilterByStatusAndInstructor() throws Exception {
+        Course published = new Course("Java", "Curso de Java", instructor);
+        published.setStatus(Status.PUBLISHED);
+        courseRepository.save(published);
+        courseRepository.save(new Course("Spring", "Curso de Spring", instructor));
+        Course otherPublished = new Course("Python", "Curso de Python", otherInstructor);
+        otherPublished.setStatus(Status.PUBLISHED);
+        courseRepository.save(otherPublished);
+
+        mockMvc.perform(get("/course/all")
+                        .param("status", "PUBLISHED")
+                        .param("instructorId", instructor.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Java"));
+
+        mockMvc.perform(get("/course/all").param("status", "PUBLISHED"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+}
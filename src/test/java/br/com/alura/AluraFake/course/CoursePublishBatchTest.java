@@ -0,0 +1,154 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: os lotes rodam em outras threads e precisam enxergar os dados commitados
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "api.course.publish-batch.chunk-size=2")
+@WithMockUser(roles = "INSTRUCTOR")
+public class CoursePublishBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User instructor;
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldPublishEachCourseAndReportValidationErrors() throws Exception {
+        Course java = createPublishableCourse("Java");
+        Course spring = createPublishableCourse("Spring");
+        Course empty = courseRepository.save(new Course("Vazio", "Curso sem atividades", instructor));
+
+        JsonNode job = waitForJob(submit("{\"courseIds\": [%d, %d, %d, 999999]}"
+                .formatted(java.getId(), spring.getId(), empty.getId())));
+
+        assertEquals(4, job.get("total").asInt());
+        assertEquals(2, job.get("published").asInt());
+        assertEquals(2, job.get("failed").asInt());
+        assertEquals("PUBLISHED", job.at("/results/0/status").asText());
+        assertEquals("PUBLISHED", job.at("/results/1/status").asText());
+        assertEquals("O curso deve conter ao menos uma atividade para ser publicado", job.at("/results/2/message").asText());
+        assertEquals("Curso não encontrado", job.at("/results/3/message").asText());
+
+        assertEquals(Status.PUBLISHED, courseRepository.findById(java.getId()).orElseThrow().getStatus());
+        assertEquals(Status.BUILDING, courseRepository.findById(empty.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void shouldPublishCoursesInBuildingOfTheInstructor() throws Exception {
+        createPublishableCourse("Java");
+        createPublishableCourse("Spring");
+        createPublishableCourse("React");
+
+        JsonNode job = waitForJob(submit("{\"instructorId\": %d}".formatted(instructor.getId())));
+
+        assertEquals(3, job.get("published").asInt());
+        assertTrue(courseRepository.findAll().stream().allMatch(course -> course.getStatus() == Status.PUBLISHED));
+    }
+
+    @Test
+    public void shouldRejectRequestWithoutCoursesOrFilter() throws Exception {
+        mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldReturnNotFoundForUnknownJob() throws Exception {
+        mockMvc.perform(get("/course/publish/batch/inexistente"))
+                .andExpect(status().isNotFound());
+    }
+
+    private Course createPublishableCourse(String title) {
+        // Em uma transação para que os contadores de atividades do curso sejam gravados junto com as atividades
+        return transactionTemplate.execute(status -> {
+            Course course = courseRepository.save(new Course(title, "Curso de " + title, instructor));
+            taskRepository.save(new Task("Pergunta aberta de " + title, 1, Type.OPEN_TEXT, course));
+            taskRepository.save(new Task("Alternativa única de " + title, 2, Type.SINGLE_CHOICE, course));
+            taskRepository.save(new Task("Múltipla escolha de " + title, 3, Type.MULTIPLE_CHOICE, course));
+            return course;
+        });
+    }
+
+    private String submit(String body) throws Exception {
+        String response = mockMvc.perform(post("/course/publish/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return objectMapper.readTree(response).get("jobId").asText();
+    }
+
+    private JsonNode waitForJob(String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            String response = mockMvc.perform(get("/course/publish/batch/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+            JsonNode job = objectMapper.readTree(response);
+            if (job.get("finished").asBoolean()) return job;
+            Thread.sleep(50);
+        }
+        return fail("Job de publicação não terminou a tempo");
+    }
+}
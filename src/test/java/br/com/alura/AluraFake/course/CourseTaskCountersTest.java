@@ -0,0 +1,116 @@
+package br.com.alura.AluraFake.course;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.CourseTaskCounterRepairService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(roles = "INSTRUCTOR")
+public class CourseTaskCountersTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CourseTaskCounterRepairService repairService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+    }
+
+    @Test
+    public void shouldUpdateCountersWhenTasksAreCreated() throws Exception {
+        createOpenText("Atividade 1", 1);
+        createOpenText("Atividade 2", 2);
+        // Inserida no meio: empurra as demais e aumenta a maior ordem
+        createOpenText("Atividade 3", 1);
+
+        Course reloaded = reload();
+        assertEquals(3, reloaded.getOpenTextTaskCount());
+        assertEquals(0, reloaded.getSingleChoiceTaskCount());
+        assertEquals(3, reloaded.getTaskCount());
+        assertEquals(3, reloaded.getMaxTaskOrder());
+    }
+
+    @Test
+    public void shouldRebuildCountersFromTasks() {
+        taskRepository.save(new Task("O que é Java?", 1, Type.OPEN_TEXT, course));
+        taskRepository.save(new Task("O que significa JVM?", 2, Type.SINGLE_CHOICE, course));
+        taskRepository.save(new Task("Quais são conceitos de POO?", 3, Type.MULTIPLE_CHOICE, course));
+        entityManager.flush();
+
+        // Simula contadores divergentes, como após uma alteração feita direto no banco
+        entityManager.createQuery("UPDATE Course c SET c.openTextTaskCount = 0, c.maxTaskOrder = 0").executeUpdate();
+
+        repairService.rebuild(course.getId());
+
+        Course reloaded = reload();
+        assertEquals(1, reloaded.getOpenTextTaskCount());
+        assertEquals(1, reloaded.getSingleChoiceTaskCount());
+        assertEquals(1, reloaded.getMultipleChoiceTaskCount());
+        assertEquals(3, reloaded.getMaxTaskOrder());
+    }
+
+    private void createOpenText(String statement, int order) throws Exception {
+        TaskRequestDTO dto = new TaskRequestDTO(course.getId(), statement, order);
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+    }
+
+    private Course reload() {
+        entityManager.flush();
+        entityManager.clear();
+        return courseRepository.findById(course.getId()).orElseThrow();
+    }
+}
@@ -10,6 +10,9 @@ import br.com.alura.AluraFake.infra.enumerated.Role;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +25,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 
+import static br.com.alura.AluraFake.util.QueryCountMatchers.queryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,6 +53,9 @@ public class InstructorReportTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User instructor;
     private User student;
 
@@ -208,5 +216,46 @@ public class InstructorReportTest {
                 .andExpect(jsonPath("$.courses.length()").value(1))
                 .andExpect(jsonPath("$.courses[0].title").value("Java Basics"));
     }
-}
 
+    @Test
+    public void shouldBuildReportWithConstantNumberOfQueries() throws Exception {
+        createCoursesWithTasks(1);
+        long queriesForOneCourse = countReportQueries();
+
+        createCoursesWithTasks(30);
+        long queriesForManyCourses = countReportQueries();
+
+        assertEquals(queriesForOneCourse, queriesForManyCourses);
+    }
+
+    @Test
+    public void shouldBuildReportWithTwoQueries() throws Exception {
+        createCoursesWithTasks(30);
+
+        // Busca do instrutor e a consulta agregada do relatório
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses"))
+                .andExpect(status().isOk())
+                .andExpect(queryCount(2));
+    }
+
+    private void createCoursesWithTasks(int amount) {
+        for (int i = 0; i < amount; i++) {
+            Course course = courseRepository.save(new Course("Curso " + i, "Descrição " + i, instructor));
+            taskRepository.save(new Task("Atividade " + i, 1, Type.OPEN_TEXT, course));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private long countReportQueries() throws Exception {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses"))
+                .andExpect(status().isOk());
+
+        return statistics.getPrepareStatementCount();
+    }
+}
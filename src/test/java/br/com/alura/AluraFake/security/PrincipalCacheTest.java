@@ -0,0 +1,122 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class PrincipalCacheTest {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User instructor;
+
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        principalCache.invalidateAll();
+
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+    }
+
+    @Test
+    public void shouldServeRepeatedLookupsFromCache() {
+        long hitsBefore = principalCache.stats().hitCount();
+
+        User first = principalCache.findByEmail("instrutor@test.com").orElseThrow();
+        User second = principalCache.findByEmail("instrutor@test.com").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(hitsBefore + 1, principalCache.stats().hitCount());
+    }
+
+    @Test
+    public void shouldNotCacheUnknownEmails() {
+        assertTrue(principalCache.findByEmail("novo@test.com").isEmpty());
+
+        userRepository.save(new User("Novo", "novo@test.com", Role.STUDENT));
+
+        assertTrue(principalCache.findByEmail("novo@test.com").isPresent());
+    }
+
+    // Os testes abaixo precisam de commit de verdade: o principal só é descartado depois dele
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void shouldInvalidateWhenUserIsRemoved() {
+        assertTrue(principalCache.findByEmail("instrutor@test.com").isPresent());
+
+        transactionTemplate.executeWithoutResult(status -> userRepository.deleteById(instructor.getId()));
+
+        assertTrue(principalCache.findByEmail("instrutor@test.com").isEmpty());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void shouldKeepPrincipalWhenChangeRollsBack() {
+        User cached = principalCache.findByEmail("instrutor@test.com").orElseThrow();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.deleteById(instructor.getId());
+            userRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertSame(cached, principalCache.findByEmail("instrutor@test.com").orElseThrow());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void shouldInvalidatePreviousEmailAndBumpTokenVersionWhenEmailChanges() {
+        assertTrue(principalCache.findByEmail("instrutor@test.com").isPresent());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(instructor.getId()).orElseThrow();
+            ReflectionTestUtils.setField(user, "email", "novo-email@test.com");
+        });
+
+        assertTrue(principalCache.findByEmail("instrutor@test.com").isEmpty());
+        assertTrue(principalCache.findByEmail("novo-email@test.com").isPresent());
+        assertEquals(1, userRepository.findTokenVersionById(instructor.getId()).orElseThrow());
+    }
+
+    @Test
+    public void shouldIgnoreBlankSubjects() {
+        assertTrue(principalCache.findByEmail("").isEmpty());
+    }
+}
@@ -0,0 +1,146 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+public class SecurityFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private TokenRevocationList tokenRevocationList;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User instructor;
+    private User student;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+        principalCache.invalidateAll();
+
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        student = userRepository.save(new User("Estudante", "estudante@test.com", Role.STUDENT));
+    }
+
+    @Test
+    public void shouldAuthenticateFromClaimsWithoutLoadingTheUser() throws Exception {
+        String token = tokenService.generateToken(instructor);
+        long lookupsBefore = principalCache.stats().requestCount();
+
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertEquals(lookupsBefore, principalCache.stats().requestCount());
+    }
+
+    @Test
+    public void shouldApplyRoleFromClaims() throws Exception {
+        String token = tokenService.generateToken(student);
+
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void shouldRejectRevokedToken() throws Exception {
+        String token = tokenService.generateToken(instructor);
+        tokenRevocationList.revokeTokensOf(instructor.getId());
+
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        String newToken = tokenService.generateToken(reload(instructor));
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldKeepRevokingAfterCachedVersionExpires() throws Exception {
+        tokenRevocationList.revokeTokensOf(instructor.getId());
+        String token = tokenService.generateToken(reload(instructor));
+
+        // Entrada expirada: a versão volta do banco, não de zero
+        tokenRevocationList.invalidateAll();
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        tokenRevocationList.invalidateAll();
+        tokenRevocationList.revokeTokensOf(instructor.getId());
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void shouldIssueTokenWithTheVersionLoadedWithTheUser() throws Exception {
+        // Versão cacheada nesta instância e depois incrementada por outra, sem passar por este cache
+        tokenRevocationList.currentVersion(instructor.getId());
+        userRepository.incrementTokenVersion(instructor.getId());
+
+        String token = tokenService.generateToken(reload(instructor));
+
+        tokenRevocationList.invalidateAll();
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void shouldRejectInvalidToken() throws Exception {
+        mockMvc.perform(get("/course/all")
+                        .header("Authorization", "Bearer invalido"))
+                .andExpect(status().isForbidden());
+    }
+
+    // O incremento é um update em massa: a entidade já carregada nesta transação não o enxerga sem refresh
+    private User reload(User user) {
+        entityManager.refresh(user);
+        return user;
+    }
+}
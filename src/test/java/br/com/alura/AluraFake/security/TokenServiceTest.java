@@ -0,0 +1,56 @@
+package br.com.alura.AluraFake.security;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private final User user = new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR, "password123");
+    private final TokenRevocationList revocationList = new TokenRevocationList(Duration.ofHours(12));
+
+    @Test
+    void validateToken__should_return_subject_of_a_valid_token() {
+        TokenService tokenService = new TokenService("alura", 100, revocationList, new SimpleMeterRegistry());
+        String token = tokenService.generateToken(user);
+
+        assertEquals("paulo@alura.com.br", tokenService.validateToken(token));
+    }
+
+    @Test
+    void validateToken__should_return_empty_subject_when_signature_does_not_match() {
+        String token = new TokenService("outro-segredo", 100, revocationList, new SimpleMeterRegistry()).generateToken(user);
+
+        assertEquals("", new TokenService("alura", 100, revocationList, new SimpleMeterRegistry()).validateToken(token));
+    }
+
+    @Test
+    void verify__should_reuse_the_verified_token_from_cache() {
+        TokenService tokenService = new TokenService("alura", 100, revocationList, new SimpleMeterRegistry());
+        String token = tokenService.generateToken(user);
+
+        assertSame(tokenService.verify(token).orElseThrow(), tokenService.verify(token).orElseThrow());
+    }
+
+    @Test
+    void verify__should_verify_every_call_when_cache_is_disabled() {
+        TokenService tokenService = new TokenService("alura", 0, revocationList, new SimpleMeterRegistry());
+        String token = tokenService.generateToken(user);
+
+        assertNotSame(tokenService.verify(token).orElseThrow(), tokenService.verify(token).orElseThrow());
+    }
+
+    @Test
+    void generateToken__should_embed_role_claim() {
+        TokenService tokenService = new TokenService("alura", 100, revocationList, new SimpleMeterRegistry());
+        String token = tokenService.generateToken(user);
+
+        assertEquals("INSTRUCTOR", tokenService.verify(token).orElseThrow()
+                .getClaim(TokenService.ROLE_CLAIM).asString());
+    }
+}
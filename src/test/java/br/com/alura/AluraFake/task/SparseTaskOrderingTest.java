@@ -0,0 +1,140 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "api.task.ordering=sparse")
+@Transactional
+@WithMockUser(roles = "INSTRUCTOR")
+public class SparseTaskOrderingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+    }
+
+    @Test
+    public void shouldInsertAtTheTopWithoutStoringOrderNumbers() throws Exception {
+        createOpenText("Atividade 1", 1);
+        createOpenText("Atividade 2", 1);
+        createOpenText("Atividade 3", 1);
+
+        List<Task> tasks = tasksByRank();
+        assertEquals(List.of("Atividade 3", "Atividade 2", "Atividade 1"), statements(tasks));
+        assertTrue(tasks.stream().allMatch(task -> task.getOrderNumber() == null));
+        assertEquals(3, courseRepository.findById(course.getId()).orElseThrow().getMaxTaskOrder());
+    }
+
+    @Test
+    public void shouldKeepOrderWhenGapBetweenNeighborsRunsOut() throws Exception {
+        createOpenText("Primeira", 1);
+        createOpenText("Última", 2);
+
+        List<String> expected = new ArrayList<>(List.of("Primeira", "Última"));
+        // Inserções repetidas na mesma posição esgotam o intervalo e forçam o reespaçamento
+        for (int i = 1; i <= 20; i++) {
+            createOpenText("Meio " + i, 2);
+            expected.add(1, "Meio " + i);
+        }
+
+        assertEquals(expected, statements(tasksByRank()));
+    }
+
+    @Test
+    public void shouldConvertCourseWrittenInDenseMode() throws Exception {
+        taskRepository.save(new Task("Atividade 1", 1, Type.OPEN_TEXT, course));
+        taskRepository.save(new Task("Atividade 2", 2, Type.OPEN_TEXT, course));
+
+        createOpenText("Nova", 2);
+
+        assertEquals(List.of("Atividade 1", "Nova", "Atividade 2"), statements(tasksByRank()));
+    }
+
+    @Test
+    public void shouldRejectOrderJumpUsingDerivedOrder() throws Exception {
+        createOpenText("Atividade 1", 1);
+
+        TaskRequestDTO dto = new TaskRequestDTO(course.getId(), "Atividade 3", 3);
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
+    private void createOpenText(String statement, int order) throws Exception {
+        TaskRequestDTO dto = new TaskRequestDTO(course.getId(), statement, order);
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+    }
+
+    private List<Task> tasksByRank() {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager
+                .createQuery("SELECT t FROM Task t WHERE t.course.id = :courseId ORDER BY t.rankKey", Task.class)
+                .setParameter("courseId", course.getId())
+                .getResultList();
+    }
+
+    private List<String> statements(List<Task> tasks) {
+        return tasks.stream().map(Task::getStatement).toList();
+    }
+}
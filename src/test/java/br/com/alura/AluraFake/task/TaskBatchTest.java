@@ -0,0 +1,184 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.infra.dto.task.BatchTaskItemDTO;
+import br.com.alura.AluraFake.infra.dto.task.BatchTaskRequestDTO;
+import br.com.alura.AluraFake.infra.dto.task.OptionDTO;
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Status;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static br.com.alura.AluraFake.infra.enumerated.Type.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(roles = "INSTRUCTOR")
+public class TaskBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Course course;
+
+    private final List<OptionDTO> singleChoiceOptions = List.of(
+            new OptionDTO("Java Virtual Machine", true),
+            new OptionDTO("Java Visual Module", false));
+
+    private final List<OptionDTO> multipleChoiceOptions = List.of(
+            new OptionDTO("Herança", true),
+            new OptionDTO("Polimorfismo", true),
+            new OptionDTO("Compilação", false));
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+    }
+
+    @Test
+    public void shouldCreateMixedBatchAndAllowPublishing() throws Exception {
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "O que é Java?", 1, null),
+                new BatchTaskItemDTO(SINGLE_CHOICE, "O que significa JVM?", 2, singleChoiceOptions),
+                new BatchTaskItemDTO(MULTIPLE_CHOICE, "Quais são conceitos de POO?", 3, multipleChoiceOptions))
+                .andExpect(status().isCreated());
+
+        assertEquals(List.of("O que é Java?", "O que significa JVM?", "Quais são conceitos de POO?"), statementsInOrder());
+        assertEquals(List.of(0, singleChoiceOptions.size(), multipleChoiceOptions.size()),
+                taskRepository.findByCourseIdOrderByOrderNumberAsc(course.getId()).stream()
+                        .map(task -> task.getOptions().size())
+                        .toList());
+
+        mockMvc.perform(post("/course/" + course.getId() + "/publish"))
+                .andExpect(status().isOk());
+        assertEquals(Status.PUBLISHED, courseRepository.findById(course.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void shouldApplyOrdersAsSequentialInsertions() throws Exception {
+        createOpenText("Existente 1", 1);
+        createOpenText("Existente 2", 2);
+        createOpenText("Existente 3", 3);
+
+        // Cada ordem vale para o estado do curso no momento daquela inserção
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "Nova A", 1, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "Nova B", 3, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "Nova C", 6, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "Nova D", 3, null))
+                .andExpect(status().isCreated());
+
+        assertEquals(List.of("Nova A", "Existente 1", "Nova D", "Nova B", "Existente 2", "Existente 3", "Nova C"),
+                statementsInOrder());
+
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        assertEquals(7, reloaded.getMaxTaskOrder());
+        assertEquals(7, reloaded.getOpenTextTaskCount());
+    }
+
+    @Test
+    public void shouldRejectWholeBatchWhenOneTaskIsInvalid() throws Exception {
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "O que é Java?", 1, null),
+                new BatchTaskItemDTO(SINGLE_CHOICE, "O que significa JVM?", 2, multipleChoiceOptions))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(0, taskRepository.countByCourseId(course.getId()));
+    }
+
+    @Test
+    public void shouldRejectOrderJumpInsideTheBatch() throws Exception {
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "Atividade 1", 1, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "Atividade 3", 3, null))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldRejectDuplicatedStatements() throws Exception {
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "O que é Java?", 1, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "o que é java?", 2, null))
+                .andExpect(status().isBadRequest());
+
+        // A restrição única também não distingue acentos
+        postBatch(
+                new BatchTaskItemDTO(OPEN_TEXT, "Água", 1, null),
+                new BatchTaskItemDTO(OPEN_TEXT, "agua", 2, null))
+                .andExpect(status().isBadRequest());
+
+        createOpenText("Existente", 1);
+        postBatch(new BatchTaskItemDTO(OPEN_TEXT, "Existente", 2, null))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void shouldRejectEmptyBatch() throws Exception {
+        postBatch().andExpect(status().isBadRequest());
+    }
+
+    private ResultActions postBatch(BatchTaskItemDTO... items) throws Exception {
+        return mockMvc.perform(post("/course/" + course.getId() + "/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchTaskRequestDTO(List.of(items)))));
+    }
+
+    private void createOpenText(String statement, int order) throws Exception {
+        mockMvc.perform(post("/task/new/opentext")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TaskRequestDTO(course.getId(), statement, order))))
+                .andExpect(status().isCreated());
+    }
+
+    private List<String> statementsInOrder() {
+        entityManager.flush();
+        entityManager.clear();
+        return taskRepository.findByCourseIdOrderByOrderNumberAsc(course.getId()).stream()
+                .map(Task::getStatement)
+                .toList();
+    }
+}
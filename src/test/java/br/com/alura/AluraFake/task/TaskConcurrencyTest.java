@@ -0,0 +1,164 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.infra.dto.task.TaskRequestDTO;
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseContentRepository;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @Transactional: cada inserção precisa da sua própria transação para disputar o lock do curso
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TASKS_PER_THREAD = 20;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CourseContentRepository courseContentRepository;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Course course;
+
+    @BeforeEach
+    public void setup() {
+        cleanup();
+        User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        courseContentRepository.deleteAll();
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldNotCreateDuplicatesUnderContention() throws Exception {
+        AtomicInteger rejectedDuplicates = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<Object>> workers = IntStream.range(0, THREADS).mapToObj(thread -> executor.<Object>submit(() -> {
+            start.await();
+            for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                // Todas as threads inserem no topo, o caso que mais desloca atividades
+                taskService.createOpenTextTask(new TaskRequestDTO(course.getId(), "Atividade " + thread + "-" + i, 1));
+            }
+            try {
+                // Todas tentam o mesmo enunciado: só uma pode vencer
+                taskService.createOpenTextTask(new TaskRequestDTO(course.getId(), "Enunciado disputado", 1));
+            } catch (ResponseStatusException duplicated) {
+                rejectedDuplicates.incrementAndGet();
+            }
+            return null;
+        })).toList();
+
+        start.countDown();
+        for (Future<Object> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        int expectedTasks = THREADS * TASKS_PER_THREAD + 1;
+        List<Task> tasks = taskRepository.findByCourseIdOrderByOrderNumberAsc(course.getId());
+
+        assertEquals(THREADS - 1, rejectedDuplicates.get());
+        assertEquals(expectedTasks, tasks.size());
+        assertEquals(IntStream.rangeClosed(1, expectedTasks).boxed().toList(),
+                tasks.stream().map(Task::getOrderNumber).toList());
+        assertEquals(expectedTasks, tasks.stream().map(Task::getStatement).distinct().count());
+
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        assertEquals(expectedTasks, reloaded.getOpenTextTaskCount());
+        assertEquals(expectedTasks, reloaded.getMaxTaskOrder());
+    }
+
+    @Test
+    public void shouldPublishOnlyAfterConcurrentTaskInsertCommits() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            Course managed = courseRepository.findById(course.getId()).orElseThrow();
+            taskRepository.save(new Task("O que é Java?", 1, Type.OPEN_TEXT, managed));
+            taskRepository.save(new Task("O que significa JVM?", 2, Type.SINGLE_CHOICE, managed, List.of(
+                    new TaskOption("Java Virtual Machine", true),
+                    new TaskOption("JavaScript Virtual Machine", false))));
+            taskRepository.save(new Task("Quais são conceitos de POO?", 3, Type.MULTIPLE_CHOICE, managed, List.of(
+                    new TaskOption("Herança", true),
+                    new TaskOption("Polimorfismo", true),
+                    new TaskOption("Variável global", false))));
+        });
+
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // A inserção segura o lock do curso e só confirma quando liberada
+        Future<?> insert = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            taskService.createOpenTextTask(new TaskRequestDTO(course.getId(), "Atividade concorrente", 4));
+            inserted.countDown();
+            try {
+                commit.await(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(inserted.await(1, TimeUnit.MINUTES));
+
+        Future<?> publish = executor.submit(() -> courseService.publishCourse(course.getId()));
+        assertThrows(TimeoutException.class, () -> publish.get(1, TimeUnit.SECONDS));
+
+        commit.countDown();
+        insert.get(1, TimeUnit.MINUTES);
+        publish.get(1, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        byte[] content = courseContentRepository.findById(course.getId()).orElseThrow().getBody();
+        assertEquals(4, objectMapper.readTree(content).get("tasks").size());
+    }
+}
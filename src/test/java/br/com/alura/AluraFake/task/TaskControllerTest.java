@@ -1,6 +1,8 @@
 package br.com.alura.AluraFake.task;
 
 import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.TaskOption;
 import br.com.alura.AluraFake.infra.enumerated.Role;
 import br.com.alura.AluraFake.infra.repository.CourseRepository;
 import br.com.alura.AluraFake.infra.enumerated.Status;
@@ -11,6 +13,7 @@ import br.com.alura.AluraFake.infra.repository.TaskRepository;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.List;
 
+import static br.com.alura.AluraFake.util.QueryCountMatchers.queryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -50,6 +55,9 @@ public class TaskControllerTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Course course;
 
     @BeforeEach
@@ -79,6 +87,20 @@ public class TaskControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    public void shouldCreateOpenTextTaskWithThreeQueries() throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        TaskRequestDTO dto = new TaskRequestDTO(course.getId(), "Qual é a diferença entre JDK e JRE?", 1);
+
+        // Leituras da criação; o insert só é descarregado no commit, que o teste transacional não faz
+        mockMvc.perform(post("/task/new/opentext")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(queryCount(3));
+    }
+
     @Test
     public void shouldRejectOpenTextTaskWithShortStatement() throws Exception {
         TaskRequestDTO dto = new TaskRequestDTO(course.getId(), "Oi?", 1);
@@ -301,6 +323,46 @@ public class TaskControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    public void shouldPersistOptionsWithTheTask() throws Exception {
+        List<OptionDTO> options = Arrays.asList(
+                new OptionDTO("Herança", true),
+                new OptionDTO("  Variável global ", false),
+                new OptionDTO("Polimorfismo", true)
+        );
+        SingleChoiceTaskRequestDTO dto = new SingleChoiceTaskRequestDTO(
+                course.getId(), "Quais são conceitos de POO?", 1, options);
+
+        mockMvc.perform(post("/task/new/multiplechoice")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated());
+        entityManager.flush();
+        entityManager.clear();
+
+        Task task = taskRepository.findByCourseIdOrderByOrderNumberAsc(course.getId()).get(0);
+        assertEquals(List.of(
+                new TaskOption("Herança", true),
+                new TaskOption("Variável global", false),
+                new TaskOption("Polimorfismo", true)), task.getOptions());
+    }
+
+    @Test
+    public void shouldRejectOptionWithControlCharacter() throws Exception {
+        List<OptionDTO> options = Arrays.asList(
+                new OptionDTO("Herança\u001FPolimorfismo", true),
+                new OptionDTO("Encapsulamento", true),
+                new OptionDTO("Variável global", false)
+        );
+        SingleChoiceTaskRequestDTO dto = new SingleChoiceTaskRequestDTO(
+                course.getId(), "Quais são conceitos de POO?", 1, options);
+
+        mockMvc.perform(post("/task/new/multiplechoice")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void shouldRejectMultipleChoiceTaskWithOnlyOneCorrectOption() throws Exception {
         List<OptionDTO> options = Arrays.asList(
@@ -0,0 +1,65 @@
+package br.com.alura.AluraFake.task;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.Task;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.enumerated.Type;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Pool de transações com uma única conexão: buscar um novo bloco de ids não pode depender de uma segunda conexão dele
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=1000"
+})
+public class TaskIdAllocationTest {
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Antes também: cada contexto recria as tabelas *_seq, e uma linha deixada por outro teste colidiria com os ids
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldAllocateIdBlocksWhileTheTransactionHoldsTheOnlyPooledConnection() {
+        // Mais de dois blocos de 50 ids dentro da mesma transação
+        transactionTemplate.executeWithoutResult(status -> {
+            User instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+            Course course = courseRepository.save(new Course("Java Basics", "Curso de Java", instructor));
+            for (int order = 1; order <= 120; order++) {
+                taskRepository.save(new Task("Atividade " + order, order, Type.OPEN_TEXT, course));
+            }
+        });
+
+        assertEquals(120, taskRepository.count());
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.alura.AluraFake.task;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Banco separado: o do contexto já está migrado e recriado pelo Hibernate
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskUniqueConstraintsMigrationTest {
+
+    private static final String DATABASE = "alurafake_migration_test";
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new DriverManagerDataSource(url.replace("/alurafake_test?", "/" + DATABASE + "?"), username, password);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway("7").clean();
+        flyway("7").migrate();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + DATABASE);
+    }
+
+    @Test
+    public void shouldMigrateDatabaseWithDuplicatedOrdersAndStatements() {
+        jdbcTemplate.update("INSERT INTO User (id, name, email, role, password) VALUES (1, 'Paulo', 'paulo@alura.com.br', 'INSTRUCTOR', '')");
+        jdbcTemplate.update("INSERT INTO Course (id, title, description, instructor_id) VALUES (1, 'Java', 'Curso de Java', 1)");
+        insertTask(1, "O que é Java?", 1);
+        insertTask(2, "O que é a JVM?", 2);
+        insertTask(3, "o que é java?", 2);
+        insertTask(4, "O que é POO?", 3);
+
+        flyway("8").migrate();
+
+        List<String> statements = jdbcTemplate.queryForList(
+                "SELECT statement FROM task WHERE course_id = 1 ORDER BY order_number", String.class);
+        assertEquals(List.of("O que é Java?", "O que é a JVM?", "o que é java? (duplicada #3)", "O que é POO?"), statements);
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT maxTaskOrder FROM Course WHERE id = 1", Integer.class));
+        assertTrue(jdbcTemplate.queryForList("SELECT constraint_name FROM information_schema.table_constraints "
+                        + "WHERE table_schema = ? AND table_name = 'task'", String.class, DATABASE)
+                .containsAll(List.of("uk_task_course_order", "uk_task_course_statement")));
+    }
+
+    private void insertTask(long id, String statement, int order) {
+        jdbcTemplate.update("INSERT INTO task (id, statement, order_number, type, course_id) VALUES (?, ?, ?, 'OPEN_TEXT', 1)",
+                id, statement, order);
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .target(target)
+                .load();
+    }
+}
@@ -0,0 +1,150 @@
+package br.com.alura.AluraFake.user;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.service.ExportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sem @Transactional: o corpo em streaming roda em outra thread/transação e precisa enxergar os dados commitados
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser
+public class NdjsonExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private Environment environment;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldExportUsersAsNdjson() throws Exception {
+        userRepository.save(new User("Caio", "caio@alura.com.br", Role.STUDENT));
+        userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+
+        List<JsonNode> lines = export("/user/all");
+
+        assertEquals(2, lines.size());
+        assertEquals("Caio", lines.get(0).get("name").asText());
+        assertEquals("INSTRUCTOR", lines.get(1).get("role").asText());
+    }
+
+    @Test
+    public void shouldExportCoursesAsNdjson() throws Exception {
+        User paulo = userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+        courseRepository.save(new Course("Java", "Curso de Java", paulo));
+        courseRepository.save(new Course("Spring", "Curso de Spring", paulo));
+        courseRepository.save(new Course("React", "Curso de React", paulo));
+
+        List<JsonNode> lines = export("/course/all");
+
+        assertEquals(3, lines.size());
+        assertEquals("Java", lines.get(0).get("title").asText());
+        assertEquals("BUILDING", lines.get(2).get("status").asText());
+    }
+
+    @Test
+    public void shouldFlushEveryLineWhenFlushIntervalIsNotPositive() throws Exception {
+        userRepository.save(new User("Caio", "caio@alura.com.br", Role.STUDENT));
+        userRepository.save(new User("Paulo", "paulo@alura.com.br", Role.INSTRUCTOR));
+
+        ReflectionTestUtils.setField(exportService, "flushEvery", 0);
+        try {
+            assertEquals(2, export("/user/all").size());
+        } finally {
+            ReflectionTestUtils.setField(exportService, "flushEvery", 500);
+        }
+    }
+
+    @Test
+    public void shouldKeepJsonArrayWhenNdjsonIsNotRequested() throws Exception {
+        userRepository.save(new User("Caio", "caio@alura.com.br", Role.STUDENT));
+
+        mockMvc.perform(get("/user/all"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].name").value("Caio"));
+    }
+
+    @Test
+    public void shouldApplyExportTimeoutOnlyToExportRequests() throws Exception {
+        MvcResult export = mockMvc.perform(get("/course/all").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), export.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+        // O padrão global continua valendo: nenhum spring.mvc.async.request-timeout estendendo tudo
+        assertNull(environment.getProperty("spring.mvc.async.request-timeout"));
+    }
+
+    private List<JsonNode> export(String path) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        return body.lines().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception exception) {
+                throw new IllegalStateException(exception);
+            }
+        }).toList();
+    }
+}
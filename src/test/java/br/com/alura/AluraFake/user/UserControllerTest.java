@@ -6,8 +6,10 @@ import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.enumerated.Role;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
 import br.com.alura.AluraFake.service.CourseService;
+import br.com.alura.AluraFake.service.ExportService;
 import br.com.alura.AluraFake.security.SecurityFilter;
 import br.com.alura.AluraFake.security.TokenService;
+import br.com.alura.AluraFake.util.ContentVersions;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,12 +40,18 @@ class UserControllerTest {
     @MockBean
     private CourseService courseService;
 
+    @MockBean
+    private ExportService exportService;
+
     @MockBean
     private TokenService tokenService;
 
     @MockBean
     private SecurityFilter securityFilter;
 
+    @MockBean
+    private ContentVersions contentVersions;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -1,11 +1,14 @@
 package br.com.alura.AluraFake.user;
 
+import br.com.alura.AluraFake.config.DataSourceConfiguration;
+import br.com.alura.AluraFake.config.SecondLevelCacheConfiguration;
 import br.com.alura.AluraFake.infra.entity.User;
 import br.com.alura.AluraFake.infra.enumerated.Role;
 import br.com.alura.AluraFake.infra.repository.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +17,9 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 @DataJpaTest
+// A fatia JPA não carrega as configurações da aplicação, e o Hibernate exige as regiões de cache e o pool do gerador
+// de ids criados nelas
+@Import({SecondLevelCacheConfiguration.class, DataSourceConfiguration.class})
 @ActiveProfiles("test")
 @Transactional
 class UserRepositoryTest {
@@ -0,0 +1,80 @@
+package br.com.alura.AluraFake.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheLoadingTest {
+
+    private final AsyncCache<Integer, String> cache = Caffeine.newBuilder().buildAsync();
+
+    @Test
+    void get__should_load_once_and_then_serve_from_cache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("1", CacheLoading.get(cache, 1, key -> String.valueOf(loads.incrementAndGet())));
+        assertEquals("1", CacheLoading.get(cache, 1, key -> String.valueOf(loads.incrementAndGet())));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get__should_not_cache_null() {
+        assertNull(CacheLoading.get(cache, 1, key -> null));
+        assertEquals("carregado", CacheLoading.get(cache, 1, key -> "carregado"));
+    }
+
+    @Test
+    void get__should_not_block_other_keys_while_loading() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> CacheLoading.get(cache, 1, key -> {
+                loading.countDown();
+                await(release);
+                return "lento";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Chaves que cairiam no mesmo bin do mapa não esperam pela consulta da outra
+            for (int key = 2; key < 1_000; key++) {
+                assertEquals("rápido", CacheLoading.get(cache, key, k -> "rápido"));
+            }
+
+            release.countDown();
+            assertEquals("lento", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get__should_not_cache_value_read_before_an_invalidation() {
+        String loaded = CacheLoading.get(cache, 1, key -> {
+            // Invalidação chegando no meio da consulta, como a de um commit concorrente
+            cache.synchronous().invalidate(key);
+            return "antigo";
+        });
+
+        assertEquals("antigo", loaded);
+        assertEquals("novo", CacheLoading.get(cache, 1, key -> "novo"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
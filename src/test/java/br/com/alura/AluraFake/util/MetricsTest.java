@@ -0,0 +1,96 @@
+package br.com.alura.AluraFake.util;
+
+import br.com.alura.AluraFake.infra.entity.Course;
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import br.com.alura.AluraFake.security.TokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Servidor real nas duas portas: o endpoint do Prometheus só existe na porta de gerenciamento
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "management.server.port=0")
+public class MetricsTest {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private User instructor;
+
+    @BeforeEach
+    @AfterEach
+    public void cleanup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void shouldExposeApiAndPersistenceMetricsOnTheManagementPort() {
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        Course course = courseRepository.save(new Course("Java", "Curso de Java", instructor));
+
+        ResponseEntity<String> publish = restTemplate.exchange(
+                "http://localhost:" + port + "/course/" + course.getId() + "/publish",
+                HttpMethod.POST, authorized(), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, publish.getStatusCode());
+
+        String scrape = restTemplate.getForObject("http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertTrue(scrape.contains("api_validation_failures_total{reason=\"course-without-tasks\",status=\"400\"} 1.0"));
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(scrape.contains("api_service_seconds_count{class=\"br.com.alura.AluraFake.service.CourseService\""));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{"));
+        assertTrue(scrape.contains("api_security_token_verification_seconds_count{result=\"valid\"}"));
+        assertTrue(scrape.contains("hikaricp_connections_active{pool=\"HikariPool-ids\"}"));
+        assertTrue(scrape.contains("hibernate_second_level_cache_requests_total{"));
+    }
+
+    @Test
+    public void shouldNotServeActuatorOnTheApplicationPort() {
+        ResponseEntity<String> response = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        assertNotEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    private HttpEntity<Void> authorized() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(tokenService.generateToken(instructor));
+        return new HttpEntity<>(headers);
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.alura.AluraFake.util;
+
+import br.com.alura.AluraFake.infra.entity.User;
+import br.com.alura.AluraFake.infra.enumerated.Role;
+import br.com.alura.AluraFake.infra.repository.CourseRepository;
+import br.com.alura.AluraFake.infra.repository.TaskRepository;
+import br.com.alura.AluraFake.infra.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+@WithMockUser(roles = "INSTRUCTOR")
+@ExtendWith(OutputCaptureExtension.class)
+@TestPropertySource(properties = "api.query-budget.max-statements=1")
+public class QueryBudgetFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User instructor;
+
+    @BeforeEach
+    public void setup() {
+        taskRepository.deleteAll();
+        courseRepository.deleteAll();
+        userRepository.deleteAll();
+
+        instructor = userRepository.save(new User("Instrutor", "instrutor@test.com", Role.INSTRUCTOR));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void shouldExposeStatementCountAndTimeAsHeaders() throws Exception {
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(QueryBudgetFilter.QUERY_COUNT_HEADER, "2"))
+                .andExpect(header().exists(QueryBudgetFilter.QUERY_TIME_HEADER));
+    }
+
+    @Test
+    public void shouldWarnWhenRequestExceedsTheStatementBudget(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/instructor/" + instructor.getId() + "/courses"))
+                .andExpect(status().isOk());
+
+        assertTrue(output.getOut().contains("GET /instructor/" + instructor.getId() + "/courses executou 2 comandos SQL"));
+    }
+
+    @Test
+    public void shouldNotWarnWithinTheBudget(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk());
+
+        assertFalse(output.getOut().contains("executou"));
+    }
+}
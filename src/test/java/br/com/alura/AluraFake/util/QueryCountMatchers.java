@@ -0,0 +1,29 @@
+package br.com.alura.AluraFake.util;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Confere quantos comandos SQL a requisição executou, pelo cabeçalho que o {@link QueryBudgetFilter} grava no perfil
+ * de teste. Em testes {@code @Transactional}, faça flush e clear antes da requisição: inserts pendentes da preparação
+ * seriam descarregados durante ela e entrariam na conta.
+ *
+ * <pre>
+ * mockMvc.perform(get("/instructor/1/courses")).andExpect(queryCount(2));
+ * </pre>
+ */
+public final class QueryCountMatchers {
+
+    private QueryCountMatchers() {
+    }
+
+    public static ResultMatcher queryCount(long expected) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER);
+            assertNotNull(header, "Resposta sem o cabeçalho " + QueryBudgetFilter.QUERY_COUNT_HEADER);
+            assertEquals(expected, Long.parseLong(header), "Quantidade de comandos SQL da requisição");
+        };
+    }
+}